@@ -0,0 +1,95 @@
+package com.healthmarketscience.benchmark;
+
+import com.healthmarketscience.core.JdbcPlusProperties;
+import com.healthmarketscience.template.JdbcPlusTemplate;
+import com.healthmarketscience.template.JdbcPlusTemplateFactory;
+import com.healthmarketscience.wrapper.Column;
+import com.healthmarketscience.wrapper.Condition;
+import com.healthmarketscience.wrapper.ForeignKey;
+import com.healthmarketscience.wrapper.SelectWrapper;
+import com.healthmarketscience.wrapper.Table;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BenchmarkSupport {
+    static final int JOIN_TABLES = 4;
+
+    static JdbcPlusTemplate init(boolean useBindParameters) {
+        JdbcPlusProperties properties = new JdbcPlusProperties();
+        properties.setMapUnderscoreToCamelCase(true);
+        properties.setUseBindParameters(useBindParameters);
+        JdbcPlusTemplateFactory.setJdbcPlusProperties(properties);
+        return JdbcPlusTemplateFactory.create(new JdbcTemplate());
+    }
+
+    /**
+     * 30 列主表连接 4 张表（共 5 张），主表带等值条件与 inListSize 个元素的 IN 条件
+     */
+    static SelectWrapper joinedSelect(int inListSize) {
+        Table from = new Table(WideEntity.class);
+        Condition condition = from.newCondition();
+        condition.eq(WideEntity::getColumn03, "value");
+        List<Long> ids = new ArrayList<>(inListSize);
+        for (long i = 0; i < inListSize; i++) {
+            ids.add(i);
+        }
+        condition.in("id", ids);
+
+        SelectWrapper selectWrapper = new SelectWrapper().query(from).where(condition);
+        for (int i = 1; i <= JOIN_TABLES; i++) {
+            Table join = new Table("join_table_" + i,
+                    new Column("id"),
+                    new Column("wide_id", new ForeignKey("wide_entity.id")),
+                    new Column("name"),
+                    new Column("status"),
+                    new Column("amount"),
+                    new Column("created_at"));
+            if (i % 2 == 0) {
+                selectWrapper.left(join);
+            } else {
+                selectWrapper.inner(join);
+                Condition joinCondition = join.newCondition();
+                joinCondition.eq("status", i);
+                selectWrapper.where(joinCondition);
+            }
+        }
+        return selectWrapper.order(from.newOrder("id", true));
+    }
+
+    static WideEntity wideEntity() {
+        WideEntity entity = new WideEntity();
+        entity.setId(1L);
+        entity.setColumn01(1L);
+        entity.setColumn02(2);
+        entity.setColumn03("column03");
+        entity.setColumn04(4L);
+        entity.setColumn05(5);
+        entity.setColumn06("column06");
+        entity.setColumn07(7L);
+        entity.setColumn08(8);
+        entity.setColumn09("column09");
+        entity.setColumn10(10L);
+        entity.setColumn11(11);
+        entity.setColumn12("column12");
+        entity.setColumn13(13L);
+        entity.setColumn14(14);
+        entity.setColumn15("column15");
+        entity.setColumn16(16L);
+        entity.setColumn17(17);
+        entity.setColumn18("column18");
+        entity.setColumn19(19L);
+        entity.setColumn20(20);
+        entity.setColumn21("column21");
+        entity.setColumn22(22L);
+        entity.setColumn23(23);
+        entity.setColumn24("column24");
+        entity.setColumn25(25L);
+        entity.setColumn26(26);
+        entity.setColumn27("column27");
+        entity.setColumn28(28L);
+        entity.setColumn29(29);
+        return entity;
+    }
+}
@@ -0,0 +1,57 @@
+package com.healthmarketscience.benchmark;
+
+import com.healthmarketscience.core.EntityParse;
+import com.healthmarketscience.core.LambdaUtils;
+import com.healthmarketscience.wrapper.Update;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体解析热点：30 列实体的 resolveInsert/resolveUpdate 与 Lambda 列名提取
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityBenchmark {
+    private WideEntity entity;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init(false);
+        entity = BenchmarkSupport.wideEntity();
+    }
+
+    @Benchmark
+    public List<Update> resolveInsert() {
+        List<Update> updates = new ArrayList<>();
+        EntityParse.resolveInsert(WideEntity.class, entity, updates);
+        return updates;
+    }
+
+    @Benchmark
+    public List<Update> resolveUpdate() {
+        List<Update> updates = new ArrayList<>();
+        EntityParse.resolveUpdate(WideEntity.class, entity, updates);
+        return updates;
+    }
+
+    @Benchmark
+    public String extractColumnName() {
+        return LambdaUtils.extractColumnName(WideEntity::getColumn01);
+    }
+}
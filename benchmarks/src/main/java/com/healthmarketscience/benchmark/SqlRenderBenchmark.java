@@ -0,0 +1,107 @@
+package com.healthmarketscience.benchmark;
+
+import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.SelectQuery;
+import com.healthmarketscience.sqlbuilder.UpdateQuery;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbSpec;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
+import com.healthmarketscience.template.JdbcPlusTemplate;
+import com.healthmarketscience.template.PreparedSql;
+import com.healthmarketscience.wrapper.SelectWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 生成热点：SelectWrapper 构建、SelectQuery 校验渲染、InsertQuery/UpdateQuery 构建渲染
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SqlRenderBenchmark {
+    @Param({"false", "true"})
+    public boolean useBindParameters;
+
+    @Param({"1", "1000"})
+    public int inListSize;
+
+    private JdbcPlusTemplate jdbcPlusTemplate;
+    private SelectWrapper selectWrapper;
+    private SelectQuery selectQuery;
+    private DbTable wideTable;
+    private List<DbColumn> wideColumns;
+    private Object[] wideValues;
+
+    @Setup
+    public void setup() {
+        jdbcPlusTemplate = BenchmarkSupport.init(useBindParameters);
+        selectWrapper = BenchmarkSupport.joinedSelect(inListSize);
+        // 预热查询结构缓存，绑定参数模式下 fetch 可直接命中
+        selectWrapper.fetch().prepare(jdbcPlusTemplate);
+        selectQuery = BenchmarkSupport.joinedSelect(inListSize).fetch().getQuery();
+
+        wideTable = new DbSpec().addDefaultSchema().addTable("wide_entity");
+        wideColumns = new ArrayList<>();
+        wideValues = new Object[30];
+        for (int i = 0; i < 30; i++) {
+            wideColumns.add(wideTable.addColumn("column_" + i));
+            wideValues[i] = i % 2 == 0 ? "value" + i : (Object) (long) i;
+        }
+    }
+
+    @Benchmark
+    public SelectWrapper selectWrapperFetch() {
+        return selectWrapper.fetch();
+    }
+
+    @Benchmark
+    public PreparedSql selectWrapperPrepare() {
+        return selectWrapper.fetch().prepare(jdbcPlusTemplate);
+    }
+
+    @Benchmark
+    public String selectQueryRender() {
+        return selectQuery.validate().toString();
+    }
+
+    @Benchmark
+    public PreparedSql selectQueryPrepare() {
+        return jdbcPlusTemplate.prepare(selectQuery);
+    }
+
+    @Benchmark
+    public PreparedSql insertQueryPrepare() {
+        InsertQuery insert = new InsertQuery(wideTable);
+        for (int i = 0; i < wideValues.length; i++) {
+            insert.addColumn(wideColumns.get(i), wideValues[i]);
+        }
+        return jdbcPlusTemplate.prepare(insert);
+    }
+
+    @Benchmark
+    public PreparedSql updateQueryPrepare() {
+        UpdateQuery update = new UpdateQuery(wideTable);
+        for (int i = 1; i < wideValues.length; i++) {
+            update.addSetClause(wideColumns.get(i), wideValues[i]);
+        }
+        update.addCondition(BinaryCondition.equalTo(wideColumns.get(0), 1L));
+        return jdbcPlusTemplate.prepare(update);
+    }
+}
@@ -0,0 +1,283 @@
+package com.healthmarketscience.benchmark;
+
+import com.healthmarketscience.core.Id;
+import com.healthmarketscience.core.IdType;
+import com.healthmarketscience.core.Table;
+
+/**
+ * 30 列实体，覆盖宽表的解析与映射
+ */
+@Table("wide_entity")
+public class WideEntity {
+    @Id(type = IdType.AUTO)
+    private Long id;
+    private Long column01;
+    private Integer column02;
+    private String column03;
+    private Long column04;
+    private Integer column05;
+    private String column06;
+    private Long column07;
+    private Integer column08;
+    private String column09;
+    private Long column10;
+    private Integer column11;
+    private String column12;
+    private Long column13;
+    private Integer column14;
+    private String column15;
+    private Long column16;
+    private Integer column17;
+    private String column18;
+    private Long column19;
+    private Integer column20;
+    private String column21;
+    private Long column22;
+    private Integer column23;
+    private String column24;
+    private Long column25;
+    private Integer column26;
+    private String column27;
+    private Long column28;
+    private Integer column29;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getColumn01() {
+        return column01;
+    }
+
+    public void setColumn01(Long column01) {
+        this.column01 = column01;
+    }
+
+    public Integer getColumn02() {
+        return column02;
+    }
+
+    public void setColumn02(Integer column02) {
+        this.column02 = column02;
+    }
+
+    public String getColumn03() {
+        return column03;
+    }
+
+    public void setColumn03(String column03) {
+        this.column03 = column03;
+    }
+
+    public Long getColumn04() {
+        return column04;
+    }
+
+    public void setColumn04(Long column04) {
+        this.column04 = column04;
+    }
+
+    public Integer getColumn05() {
+        return column05;
+    }
+
+    public void setColumn05(Integer column05) {
+        this.column05 = column05;
+    }
+
+    public String getColumn06() {
+        return column06;
+    }
+
+    public void setColumn06(String column06) {
+        this.column06 = column06;
+    }
+
+    public Long getColumn07() {
+        return column07;
+    }
+
+    public void setColumn07(Long column07) {
+        this.column07 = column07;
+    }
+
+    public Integer getColumn08() {
+        return column08;
+    }
+
+    public void setColumn08(Integer column08) {
+        this.column08 = column08;
+    }
+
+    public String getColumn09() {
+        return column09;
+    }
+
+    public void setColumn09(String column09) {
+        this.column09 = column09;
+    }
+
+    public Long getColumn10() {
+        return column10;
+    }
+
+    public void setColumn10(Long column10) {
+        this.column10 = column10;
+    }
+
+    public Integer getColumn11() {
+        return column11;
+    }
+
+    public void setColumn11(Integer column11) {
+        this.column11 = column11;
+    }
+
+    public String getColumn12() {
+        return column12;
+    }
+
+    public void setColumn12(String column12) {
+        this.column12 = column12;
+    }
+
+    public Long getColumn13() {
+        return column13;
+    }
+
+    public void setColumn13(Long column13) {
+        this.column13 = column13;
+    }
+
+    public Integer getColumn14() {
+        return column14;
+    }
+
+    public void setColumn14(Integer column14) {
+        this.column14 = column14;
+    }
+
+    public String getColumn15() {
+        return column15;
+    }
+
+    public void setColumn15(String column15) {
+        this.column15 = column15;
+    }
+
+    public Long getColumn16() {
+        return column16;
+    }
+
+    public void setColumn16(Long column16) {
+        this.column16 = column16;
+    }
+
+    public Integer getColumn17() {
+        return column17;
+    }
+
+    public void setColumn17(Integer column17) {
+        this.column17 = column17;
+    }
+
+    public String getColumn18() {
+        return column18;
+    }
+
+    public void setColumn18(String column18) {
+        this.column18 = column18;
+    }
+
+    public Long getColumn19() {
+        return column19;
+    }
+
+    public void setColumn19(Long column19) {
+        this.column19 = column19;
+    }
+
+    public Integer getColumn20() {
+        return column20;
+    }
+
+    public void setColumn20(Integer column20) {
+        this.column20 = column20;
+    }
+
+    public String getColumn21() {
+        return column21;
+    }
+
+    public void setColumn21(String column21) {
+        this.column21 = column21;
+    }
+
+    public Long getColumn22() {
+        return column22;
+    }
+
+    public void setColumn22(Long column22) {
+        this.column22 = column22;
+    }
+
+    public Integer getColumn23() {
+        return column23;
+    }
+
+    public void setColumn23(Integer column23) {
+        this.column23 = column23;
+    }
+
+    public String getColumn24() {
+        return column24;
+    }
+
+    public void setColumn24(String column24) {
+        this.column24 = column24;
+    }
+
+    public Long getColumn25() {
+        return column25;
+    }
+
+    public void setColumn25(Long column25) {
+        this.column25 = column25;
+    }
+
+    public Integer getColumn26() {
+        return column26;
+    }
+
+    public void setColumn26(Integer column26) {
+        this.column26 = column26;
+    }
+
+    public String getColumn27() {
+        return column27;
+    }
+
+    public void setColumn27(String column27) {
+        this.column27 = column27;
+    }
+
+    public Long getColumn28() {
+        return column28;
+    }
+
+    public void setColumn28(Long column28) {
+        this.column28 = column28;
+    }
+
+    public Integer getColumn29() {
+        return column29;
+    }
+
+    public void setColumn29(Integer column29) {
+        this.column29 = column29;
+    }
+}
@@ -0,0 +1,273 @@
+package com.healthmarketscience.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为 @Table 实体生成 {@code <实体类名>JdbcPlusMapper}，实现 com.healthmarketscience.template.EntityMapper：
+ * 直接调用 getter/setter 完成结果集映射与参数绑定，并预渲染按主键增删改查的 SQL。
+ * 列名规则与运行时一致，由处理器参数 {@code -Ajdbcplus.mapUnderscoreToCamelCase=true} 指定是否驼峰转下划线；
+ * 无法直接访问的实体（私有字段且无 getter/setter、无可访问的无参构造等）只给出警告，运行时回退到反射
+ */
+public class EntityMapperProcessor extends AbstractProcessor {
+    static final String TABLE = "com.healthmarketscience.core.Table";
+    static final String COLUMN = "com.healthmarketscience.core.Column";
+    static final String ID = "com.healthmarketscience.core.Id";
+    static final String OPTION_MAP_UNDERSCORE = "jdbcplus.mapUnderscoreToCamelCase";
+    static final String SUFFIX = "JdbcPlusMapper";
+    private static final String AUTO = "AUTO";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(TABLE);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(OPTION_MAP_UNDERSCORE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement table = processingEnv.getElementUtils().getTypeElement(TABLE);
+        if (table == null) {
+            return false;
+        }
+
+        boolean mapUnderscore = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_MAP_UNDERSCORE));
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(table))) {
+            Entity entity = parse(type, mapUnderscore);
+            if (entity != null) {
+                write(entity);
+            }
+        }
+        return false;
+    }
+
+    private Entity parse(TypeElement type, boolean mapUnderscore) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getTypeParameters().isEmpty()) {
+            return skip(type, "not a concrete non-generic class");
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            TypeElement t = (TypeElement) e;
+            if (t.getModifiers().contains(Modifier.PRIVATE)
+                    || t.getNestingKind() == NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC)) {
+                return skip(type, "class is not accessible from its package");
+            }
+        }
+        boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor) {
+            return skip(type, "no accessible no-arg constructor");
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        Entity entity = new Entity(type, pkg.getQualifiedName().toString(),
+                string(annotation(type, TABLE), "value", ""), mapUnderscore);
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                continue;
+            }
+
+            String name = field.getSimpleName().toString();
+            String defaultColumn = mapUnderscore ? camelToSnake(name) : name;
+            AnnotationMirror id = annotation(field, ID);
+            AnnotationMirror column = annotation(field, COLUMN);
+            String columnName;
+            if (id != null) {
+                columnName = string(id, "value", "");
+            } else if (column != null && Boolean.parseBoolean(String.valueOf(value(column, "ignore", false)))) {
+                continue;
+            } else {
+                columnName = column == null ? "" : string(column, "value", "");
+            }
+            if (columnName.isEmpty()) {
+                columnName = defaultColumn;
+            }
+
+            boolean direct = !modifiers.contains(Modifier.PRIVATE);
+            String getter = accessor(methods, pkg, field, getterNames(field), 0);
+            String setter = accessor(methods, pkg, field, List.of("set" + capitalize(name)), 1);
+            if (getter == null && !direct || setter == null && !direct) {
+                return skip(type, "field '" + name + "' has no accessible getter/setter");
+            }
+
+            Property property = new Property(name, columnName, field.asType(),
+                    getter == null ? name : getter + "()", setter,
+                    id == null ? null : string(id, "type", "NONE"));
+            entity.properties.add(property);
+            if (id != null && entity.id == null) {
+                entity.id = property;
+            }
+        }
+        return entity;
+    }
+
+    private Entity skip(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "No mapper generated for " + type.getQualifiedName() + ": " + reason + ", falling back to reflection", type);
+        return null;
+    }
+
+    private List<String> getterNames(VariableElement field) {
+        String name = capitalize(field.getSimpleName().toString());
+        return field.asType().getKind() == TypeKind.BOOLEAN ? List.of("is" + name, "get" + name) : List.of("get" + name);
+    }
+
+    private String accessor(List<ExecutableElement> methods, PackageElement pkg, VariableElement field,
+                            List<String> names, int parameters) {
+        for (String name : names) {
+            for (ExecutableElement method : methods) {
+                if (!method.getSimpleName().contentEquals(name) || method.getParameters().size() != parameters
+                        || method.getModifiers().contains(Modifier.STATIC) || !accessible(method, pkg)) {
+                    continue;
+                }
+                TypeMirror type = parameters == 0 ? method.getReturnType() : method.getParameters().get(0).asType();
+                if (processingEnv.getTypeUtils().isSameType(type, field.asType())) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean accessible(Element element, PackageElement pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && processingEnv.getElementUtils().getPackageOf(element).equals(pkg);
+    }
+
+    private void write(Entity entity) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity.type).toString();
+        String simpleName = (entity.packageName.isEmpty() ? binaryName : binaryName.substring(entity.packageName.length() + 1)) + SUFFIX;
+        String qualifiedName = entity.packageName.isEmpty() ? simpleName : entity.packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity.type).openWriter()) {
+            writer.write(new MapperSource(processingEnv, entity, simpleName).render());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + qualifiedName + ": " + e.getMessage(), entity.type);
+        }
+    }
+
+    private static AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name, Object defaultValue) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                // 枚举常量以 VariableElement 表示
+                return value instanceof VariableElement constant ? constant.getSimpleName().toString() : value;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String string(AnnotationMirror mirror, String name, String defaultValue) {
+        return mirror == null ? defaultValue : String.valueOf(value(mirror, name, defaultValue));
+    }
+
+    private static String capitalize(String name) {
+        return name.isEmpty() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 与 NamingConversionUtils.camelToSnake 一致
+     */
+    static String camelToSnake(String camelCase) {
+        StringBuilder result = new StringBuilder();
+        for (char c : camelCase.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                result.append("_").append(Character.toLowerCase(c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    static final class Entity {
+        final TypeElement type;
+        final String packageName;
+        final String table;
+        final boolean mapUnderscore;
+        final List<Property> properties = new ArrayList<>();
+        Property id;
+
+        Entity(TypeElement type, String packageName, String table, boolean mapUnderscore) {
+            this.type = type;
+            this.packageName = packageName;
+            this.table = table;
+            this.mapUnderscore = mapUnderscore;
+        }
+
+        boolean isAutoId() {
+            return id != null && AUTO.equals(id.idType());
+        }
+
+        List<Property> insertProperties() {
+            List<Property> list = new ArrayList<>();
+            for (Property property : properties) {
+                if (property.idType() == null || !AUTO.equals(property.idType())) {
+                    list.add(property);
+                }
+            }
+            return list;
+        }
+
+        List<Property> updateProperties() {
+            List<Property> list = new ArrayList<>();
+            for (Property property : properties) {
+                if (property.idType() == null) {
+                    list.add(property);
+                }
+            }
+            return list;
+        }
+    }
+
+    /**
+     * @param getter 读取表达式，getter 调用或字段名
+     * @param setter setter 方法名，为 null 时直接赋值字段
+     * @param idType 主键策略，非主键为 null
+     */
+    record Property(String name, String column, TypeMirror type, String getter, String setter, String idType) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.healthmarketscience.processor;
+
+import com.healthmarketscience.processor.EntityMapperProcessor.Entity;
+import com.healthmarketscience.processor.EntityMapperProcessor.Property;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 渲染生成的映射器源码，SQL 与 sqlbuilder 渲染结果的格式保持一致
+ */
+class MapperSource {
+    private final ProcessingEnvironment processingEnv;
+    private final Entity entity;
+    private final String simpleName;
+    private final String entityName;
+    private final StringBuilder out = new StringBuilder(4096);
+
+    MapperSource(ProcessingEnvironment processingEnv, Entity entity, String simpleName) {
+        this.processingEnv = processingEnv;
+        this.entity = entity;
+        this.simpleName = simpleName;
+        this.entityName = entity.type.getQualifiedName().toString();
+    }
+
+    String render() {
+        List<Property> insert = entity.insertProperties();
+        List<Property> update = entity.updateProperties();
+        Property id = entity.id;
+
+        if (!entity.packageName.isEmpty()) {
+            line("package " + entity.packageName + ";");
+            line("");
+        }
+        line("import com.healthmarketscience.core.IdGeneratorFactory;");
+        line("import com.healthmarketscience.core.IdType;");
+        line("import com.healthmarketscience.template.EntityMapper;");
+        line("import com.healthmarketscience.template.EntityMappers;");
+        line("");
+        line("import java.sql.ResultSet;");
+        line("import java.sql.SQLException;");
+        line("import java.util.List;");
+        line("");
+        line("@javax.annotation.processing.Generated(\"" + EntityMapperProcessor.class.getName() + "\")");
+        line("public final class " + simpleName + " implements EntityMapper<" + entityName + "> {");
+        line("    private static final List<String> COLUMNS = " + columnList(entity.properties) + ";");
+        line("    private static final List<String> INSERT_COLUMNS = " + columnList(insert) + ";");
+        line("    private static final List<String> UPDATE_COLUMNS = " + columnList(update) + ";");
+        line("");
+
+        method("Class<" + entityName + "> getEntityClass()", "return " + entityName + ".class;");
+        method("boolean isMapUnderscoreToCamelCase()", "return " + entity.mapUnderscore + ";");
+        method("String getTable()", "return " + literal(entity.table) + ";");
+        method("String getIdColumn()", "return " + (id == null ? "null" : literal(id.column())) + ";");
+        method("boolean isAutoId()", "return " + entity.isAutoId() + ";");
+        method("List<String> getColumns()", "return COLUMNS;");
+        method("List<String> getInsertColumns()", "return INSERT_COLUMNS;");
+        method("List<String> getUpdateColumns()", "return UPDATE_COLUMNS;");
+
+        method("String getInsertSql()", "return " + literal("INSERT INTO " + entity.table + " (" + columns(insert)
+                + ") VALUES (" + insert.stream().map(p -> "?").collect(Collectors.joining(",")) + ")") + ";");
+        String where = id == null ? null : " WHERE (" + id.column() + " = ?)";
+        method("String getUpdateByIdSql()", "return " + (id == null || update.isEmpty() ? "null" : literal("UPDATE "
+                + entity.table + " SET " + update.stream().map(p -> p.column() + " = ?").collect(Collectors.joining(","))
+                + where)) + ";");
+        method("String getDeleteByIdSql()", "return " + (id == null ? "null"
+                : literal("DELETE FROM " + entity.table + where)) + ";");
+        method("String getSelectByIdSql()", "return " + (id == null ? "null"
+                : literal("SELECT " + columns(entity.properties) + " FROM " + entity.table + where)) + ";");
+
+        line("    @Override");
+        line("    public void generateId(" + entityName + " entity) {");
+        if (id != null && !entity.isAutoId()) {
+            line("        Object id = IdGeneratorFactory.getIdGenerator(IdType." + id.idType() + ").generateId();");
+            line("        if (id != null) {");
+            line("            " + assign(id, "id"));
+            line("        }");
+        }
+        line("    }");
+        line("");
+
+        method("Object[] getInsertValues(" + entityName + " entity)", "return new Object[]{" + values(insert) + "};");
+        method("Object[] getUpdateValues(" + entityName + " entity)", "return new Object[]{" + values(update) + "};");
+        method("Object getId(" + entityName + " entity)", "return " + (id == null ? "null" : "entity." + id.getter()) + ";");
+
+        line("    @Override");
+        line("    public void setGeneratedKey(" + entityName + " entity, Number key) {");
+        String key = id == null || !entity.isAutoId() ? null : generatedKey(id.type());
+        if (key != null) {
+            line("        " + set(id, key));
+        }
+        line("    }");
+        line("");
+
+        line("    @Override");
+        line("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("    public " + entityName + " mapRow(ResultSet rs, int rowNum) throws SQLException {");
+        line("        " + entityName + " entity = new " + entityName + "();");
+        line("        Object value;");
+        for (int i = 0; i < entity.properties.size(); i++) {
+            Property property = entity.properties.get(i);
+            line("        value = EntityMappers.getValue(rs, " + (i + 1) + ", " + erasure(property.type()) + ".class);");
+            if (property.type().getKind().isPrimitive()) {
+                line("        if (value != null) {");
+                line("            " + assign(property, "value"));
+                line("        }");
+            } else {
+                line("        " + assign(property, "value"));
+            }
+        }
+        line("        return entity;");
+        line("    }");
+        line("}");
+        return out.toString();
+    }
+
+    private void method(String signature, String body) {
+        line("    @Override");
+        line("    public " + signature + " {");
+        line("        " + body);
+        line("    }");
+        line("");
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+
+    private String assign(Property property, String value) {
+        return set(property, "(" + boxed(property.type()) + ") " + value);
+    }
+
+    private static String set(Property property, String expression) {
+        return property.setter() == null
+                ? "entity." + property.name() + " = " + expression + ";"
+                : "entity." + property.setter() + "(" + expression + ");";
+    }
+
+    private static String values(List<Property> properties) {
+        return properties.stream().map(p -> "entity." + p.getter()).collect(Collectors.joining(", "));
+    }
+
+    private static String columns(List<Property> properties) {
+        return properties.stream().map(Property::column).collect(Collectors.joining(","));
+    }
+
+    private static String columnList(List<Property> properties) {
+        return properties.stream().map(p -> literal(p.column())).collect(Collectors.joining(", ", "List.of(", ")"));
+    }
+
+    /**
+     * 与 EntityField.toKey 一致，只回写 Long、Integer 与 String 类型的主键
+     */
+    private String generatedKey(TypeMirror type) {
+        switch (boxed(type)) {
+            case "java.lang.Long":
+                return "key.longValue()";
+            case "java.lang.Integer":
+                return "key.intValue()";
+            case "java.lang.String":
+                return "key.toString()";
+            default:
+                return null;
+        }
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+        }
+        return erasure(type);
+    }
+
+    private String erasure(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.TYPEVAR
+                ? processingEnv.getTypeUtils().erasure(type).toString()
+                : type.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.append('"').toString();
+    }
+}
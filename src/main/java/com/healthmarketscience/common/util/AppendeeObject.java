@@ -25,7 +25,8 @@ import java.io.IOException;
  * provide a new implementation for the {@code appendTo()} method.  The
  * default {@code appendTo()} implementation appends the result of calling
  * {@link Object#toString}.  Also adds a {@link #toString(int)} method for
- * specifying the initial size of the underlying StringBuilder.
+ * specifying the initial size of the underlying StringBuilder.  Rendering
+ * uses pooled buffers, see {@link RenderBuffers}.
  *
  * @author James Ahlborn
  */
@@ -41,12 +42,12 @@ public class AppendeeObject
   }
 
   public String toString(int size) {
-    return(new StringAppendableExt(size)).append(this).toString();
+    return RenderBuffers.toString(this, size, null);
   }
   
   @Override
   public String toString() {
-    return(new StringAppendableExt()).append(this).toString();
+    return RenderBuffers.toString(this, 0, null);
   }
   
 }
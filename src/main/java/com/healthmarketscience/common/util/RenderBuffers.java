@@ -0,0 +1,198 @@
+package com.healthmarketscience.common.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Small lock-free pool of StringBuilders used for rendering Appendees to
+ * Strings.  Rendering into a retained buffer avoids regrowing a fresh
+ * default-capacity StringBuilder for every render, and the final String is
+ * produced with a single copy of the rendered chars.  Unlike a ThreadLocal,
+ * the pool does not grow with the number of threads, so it also works well
+ * with virtual threads.  Nested renders (an Appendee whose rendering calls
+ * {@code toString()} on another) simply take another buffer.
+ * <p>
+ * The initial capacity of a buffer which is not yet large enough is taken
+ * from the length last rendered for the same Appendee class (a cheap per
+ * query shape size hint), or the given size, whichever is larger.
+ * <p>
+ * Very large statements need not be materialized as a String at all: they
+ * can be streamed to any Appendable (e.g. a {@link java.io.Writer}) using
+ * {@link #write}, viewed in place as a {@link CharBuffer}
+ * using {@link #apply}, or encoded straight to a {@link ByteBuffer} using
+ * {@link #encode}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class RenderBuffers
+{
+  private static final int SLOTS = Math.max(
+      4, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1);
+  /** larger buffers are dropped on release so that one huge render does not
+      pin memory */
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+  private static final AtomicReferenceArray<StringBuilder> POOL =
+    new AtomicReferenceArray<StringBuilder>(SLOTS);
+
+  private static final ClassValue<AtomicInteger> SIZE_HINTS =
+    new ClassValue<AtomicInteger>() {
+      @Override
+      protected AtomicInteger computeValue(Class<?> type) {
+        return new AtomicInteger();
+      }
+    };
+
+  private RenderBuffers() {}
+
+  /**
+   * @return an empty StringBuilder with at least the given capacity, from the
+   *         pool if one is available
+   */
+  public static StringBuilder acquire(int capacity) {
+    int start = ThreadLocalRandom.current().nextInt(SLOTS);
+    for(int i = 0; i < SLOTS; ++i) {
+      StringBuilder sb = POOL.getAndSet((start + i) & (SLOTS - 1), null);
+      if(sb != null) {
+        sb.setLength(0);
+        sb.ensureCapacity(capacity);
+        return sb;
+      }
+    }
+    return new StringBuilder(Math.max(capacity, 16));
+  }
+
+  /**
+   * Returns the given StringBuilder to the pool.  The caller must not use it
+   * afterwards.
+   */
+  public static void release(StringBuilder sb) {
+    if(sb.capacity() > MAX_RETAINED_CAPACITY) {
+      return;
+    }
+    int start = ThreadLocalRandom.current().nextInt(SLOTS);
+    for(int i = 0; i < SLOTS; ++i) {
+      if(POOL.compareAndSet((start + i) & (SLOTS - 1), null, sb)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Renders the given Appendee using a pooled buffer.
+   * @param a the object to render
+   * @param size minimum initial size of the buffer
+   * @param context optional append context
+   * @return the rendered String
+   */
+  public static String toString(Appendee a, int size, Object context) {
+    StringBuilder sb = render(a, size, context);
+    try {
+      return sb.toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Renders the given Appendee using a pooled buffer and passes a read-only
+   * CharBuffer view of the rendered chars to the given function, without
+   * creating a String.  The view is only valid for the duration of the call.
+   * @param a the object to render
+   * @param context optional append context
+   * @param func function consuming the rendered chars
+   * @return the result of the given function
+   */
+  public static <R> R apply(Appendee a, Object context,
+                            Function<? super CharBuffer, R> func)
+  {
+    StringBuilder sb = render(a, 0, context);
+    try {
+      return func.apply(CharBuffer.wrap(sb).asReadOnlyBuffer());
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Renders the given Appendee using a pooled buffer and encodes the rendered
+   * chars with the given charset, without creating a String.  Malformed or
+   * unmappable chars are replaced with the charset's replacement bytes, like
+   * {@link String#getBytes(Charset)}.
+   * @param a the object to render
+   * @param context optional append context
+   * @param charset the charset used to encode the chars
+   * @return a buffer containing the encoded bytes, ready to be read
+   */
+  public static ByteBuffer encode(Appendee a, Object context, Charset charset)
+  {
+    StringBuilder sb = render(a, 0, context);
+    try {
+      return charset.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .encode(CharBuffer.wrap(sb));
+    } catch(CharacterCodingException e) {
+      throw new RuntimeException("should never get here", e);
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Renders the given Appendee directly into the given Appendable (e.g. a
+   * {@link java.io.Writer} or a {@link CharBuffer} of sufficient capacity),
+   * without any intermediate buffer.  Unlike the other methods, any
+   * IOException from the Appendable is propagated.
+   * @param a the object to render
+   * @param out the destination of the rendered chars
+   * @param context optional append context
+   */
+  public static void write(Appendee a, Appendable out, Object context)
+    throws IOException
+  {
+    new AppendableExt(out, context).append(a);
+  }
+
+  /**
+   * Renders the given Appendee using a pooled buffer, without creating a
+   * String.
+   * @param a the object to render
+   * @param context optional append context
+   * @return the length of the rendered chars
+   */
+  public static int length(Appendee a, Object context) {
+    StringBuilder sb = acquire(SIZE_HINTS.get(a.getClass()).get());
+    try {
+      new StringAppendableExt(sb, context).append(a);
+      return sb.length();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Renders the given Appendee into a pooled buffer and updates the size hint
+   * for its class.  The caller must release the returned buffer.
+   */
+  private static StringBuilder render(Appendee a, int size, Object context) {
+    AtomicInteger hint = SIZE_HINTS.get(a.getClass());
+    StringBuilder sb = acquire(Math.max(size, hint.get()));
+    try {
+      new StringAppendableExt(sb, context).append(a);
+    } catch(RuntimeException | Error e) {
+      release(sb);
+      throw e;
+    }
+    hint.lazySet(sb.length());
+    return sb;
+  }
+}
@@ -0,0 +1,149 @@
+package com.healthmarketscience.core;
+
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.MergeQuery;
+import com.healthmarketscience.sqlbuilder.Query;
+import com.healthmarketscience.sqlbuilder.SelectQuery;
+import com.healthmarketscience.sqlbuilder.custom.mysql.MysOnDuplicateKeyUpdateClause;
+import com.healthmarketscience.sqlbuilder.custom.mysql.MysLimitClause;
+import com.healthmarketscience.sqlbuilder.custom.oracle.OraFromDualClause;
+import com.healthmarketscience.sqlbuilder.custom.postgresql.PgOnConflictClause;
+import com.healthmarketscience.sqlbuilder.custom.postgresql.PgLimitClause;
+import com.healthmarketscience.sqlbuilder.custom.postgresql.PgOffsetClause;
+import com.healthmarketscience.sqlbuilder.custom.sqlserver.MssStatementTerminator;
+import com.healthmarketscience.sqlbuilder.custom.sqlserver.MssTopClause;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
+
+import java.util.List;
+
+/**
+ * 数据库方言，描述单条语句的绑定参数个数、多行 VALUES 行数与语句长度上限（0 表示不限制），
+ * 以及是否支持行值比较 (a, b) &gt; (?, ?)
+ */
+public enum Dialect {
+    MYSQL(65535, 0, 4 * 1024 * 1024, true),
+    POSTGRESQL(65535, 0, 0, true),
+    // 服务端上限 2100 且不允许达到该值，预编译执行时驱动还会占用参数
+    SQLSERVER(2099, 1000, 0, false),
+    ORACLE(65535, 1, 0, false),
+    OTHER(0, 0, 0, false);
+
+    private static final int DEFAULT_IN_LIST_SIZE = 1000;
+
+    private final int maxParameters;
+    private final int maxValuesRows;
+    private final int maxStatementLength;
+    private final boolean supportsRowValues;
+
+    Dialect(int maxParameters, int maxValuesRows, int maxStatementLength, boolean supportsRowValues) {
+        this.maxParameters = maxParameters;
+        this.maxValuesRows = maxValuesRows;
+        this.maxStatementLength = maxStatementLength;
+        this.supportsRowValues = supportsRowValues;
+    }
+
+    public int getMaxParameters() {
+        return maxParameters;
+    }
+
+    public int getMaxValuesRows() {
+        return maxValuesRows;
+    }
+
+    public int getMaxStatementLength() {
+        return maxStatementLength;
+    }
+
+    public boolean isSupportsRowValues() {
+        return supportsRowValues;
+    }
+
+    /**
+     * @return 单个 IN 列表的元素上限：Oracle、SQL Server 与未知方言为 1000，其余取绑定参数上限；
+     *         SQL Server 低于参数上限，使整块列表之外仍可绑定其他条件的参数
+     */
+    public int getMaxInListSize() {
+        return this == ORACLE || this == SQLSERVER || maxParameters == 0 ? DEFAULT_IN_LIST_SIZE : maxParameters;
+    }
+
+    /**
+     * 按方言上限将多行插入拆分为多条语句
+     */
+    public List<InsertQuery> split(InsertQuery insertQuery) {
+        return insertQuery.split(maxValuesRows, maxParameters, maxStatementLength);
+    }
+
+    /**
+     * 按方言为查询追加行数限制，开启 useBindParameters 时数值作为绑定参数（SQL Server 的 TOP 除外），
+     * 使不同页的查询共享同一条 SQL；SQL Server 在有偏移量时使用 OFFSET ... FETCH，要求查询带有 ORDER BY
+     */
+    public void limit(SelectQuery query, long offset, long rowCount) {
+        Long skip = offset > 0 ? offset : null;
+        switch (this) {
+            case MYSQL:
+                query.addCustomization(skip != null ? new MysLimitClause(skip, rowCount) : new MysLimitClause(rowCount));
+                break;
+            case POSTGRESQL:
+                query.addCustomization(new PgLimitClause(rowCount));
+                if (skip != null) {
+                    query.addCustomization(new PgOffsetClause(skip));
+                }
+                break;
+            case SQLSERVER:
+                if (skip == null) {
+                    query.addCustomization(new MssTopClause(rowCount));
+                    break;
+                }
+                query.setOffset(skip).setFetchNext(rowCount);
+                break;
+            default:
+                if (skip != null) {
+                    query.setOffset(skip);
+                }
+                query.setFetchNext(rowCount);
+        }
+    }
+
+    /**
+     * @return {@link #limit} 在绑定参数模式下按出现顺序产生的参数；SQL Server 的 TOP 以字面量输出，返回 null
+     */
+    public List<Object> limitParameters(long offset, long rowCount) {
+        if (offset <= 0) {
+            return this == SQLSERVER ? null : List.of(rowCount);
+        }
+        return this == POSTGRESQL ? List.of(rowCount, offset) : List.of(offset, rowCount);
+    }
+
+    /**
+     * 按方言构造单行 upsert 预编译语句，绑定参数依次为主键列与更新列：
+     * MySQL 使用 ON DUPLICATE KEY UPDATE，PostgreSQL 使用 ON CONFLICT ... DO UPDATE，
+     * 其余使用 MERGE（Oracle 追加 FROM DUAL，SQL Server 追加语句结束符）
+     */
+    public Query<?> upsert(DbTable table, DbColumn[] keyColumns, DbColumn[] updateColumns) {
+        switch (this) {
+            case MYSQL:
+                // 没有可更新列时以主键赋值自身，使已存在的行保持不变
+                return new InsertQuery(table)
+                        .addPreparedColumns(keyColumns)
+                        .addPreparedColumns(updateColumns)
+                        .addCustomization(new MysOnDuplicateKeyUpdateClause(updateColumns.length > 0 ? updateColumns : keyColumns));
+            case POSTGRESQL:
+                return new InsertQuery(table)
+                        .addPreparedColumns(keyColumns)
+                        .addPreparedColumns(updateColumns)
+                        .addCustomization(new PgOnConflictClause(keyColumns).setUpdateColumns(updateColumns));
+            default:
+                MergeQuery merge = new MergeQuery(table)
+                        .addPreparedColumns(keyColumns)
+                        .addPreparedColumns(updateColumns)
+                        .addKeyColumns(keyColumns);
+                if (this == ORACLE) {
+                    merge.addCustomization(new OraFromDualClause());
+                } else if (this == SQLSERVER) {
+                    merge.addCustomization(new MssStatementTerminator());
+                }
+                return merge;
+        }
+    }
+}
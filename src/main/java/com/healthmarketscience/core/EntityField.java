@@ -0,0 +1,92 @@
+package com.healthmarketscience.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 实体的持久化字段：列名、主键标记与基于 MethodHandle 的读写访问器
+ */
+public final class EntityField {
+    private final Field field;
+    private final String column;
+    private final Id id;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    EntityField(Field field, String column, Id id) {
+        this.field = field;
+        this.column = column;
+        this.id = id;
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+        }
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isId() {
+        return id != null;
+    }
+
+    public IdType getIdType() {
+        return id == null ? null : id.type();
+    }
+
+    public Object get(Object entity) {
+        try {
+            return getter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+        }
+    }
+
+    public void set(Object entity, Object value) {
+        try {
+            setter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+        }
+    }
+
+    /**
+     * 回写数据库生成的主键，按字段类型转换
+     */
+    public void setKey(Object entity, Number key) {
+        Object value = toKey(getType(), key);
+        if (value != null) {
+            set(entity, value);
+        }
+    }
+
+    static Object toKey(Class<?> fieldType, Number key) {
+        if (fieldType == Long.class || fieldType == long.class) {
+            return key.longValue();
+        } else if (fieldType == Integer.class || fieldType == int.class) {
+            return key.intValue();
+        } else if (fieldType == String.class) {
+            return key.toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.healthmarketscience.core;
+
+import com.healthmarketscience.template.JdbcPlusTemplateFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体类的不可变元数据：表名、主键、按声明顺序的持久化字段与列名，每个类只解析一次注解；
+ * 列名依赖 mapUnderscoreToCamelCase，配置变化后按需重新解析
+ */
+public final class EntityMetadata {
+    private static final Map<Class<?>, EntityMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> entityClass;
+    private final String table;
+    private final boolean mapUnderscoreToCamelCase;
+    private final EntityField id;
+    private final List<EntityField> fields;
+    private final List<EntityField> insertFields;
+    private final List<EntityField> updateFields;
+    private final List<String> columns;
+    private final List<String> updateColumns;
+    private volatile MethodHandle constructor;
+
+    private EntityMetadata(Class<?> entityClass, boolean mapUnderscoreToCamelCase) {
+        this.entityClass = entityClass;
+        this.mapUnderscoreToCamelCase = mapUnderscoreToCamelCase;
+        Table annotation = entityClass.getAnnotation(Table.class);
+        this.table = annotation == null ? null : annotation.value();
+
+        EntityField idField = null;
+        List<EntityField> fieldList = new ArrayList<>();
+        List<EntityField> insertList = new ArrayList<>();
+        List<EntityField> updateList = new ArrayList<>();
+        List<String> columnList = new ArrayList<>();
+        List<String> updateColumnList = new ArrayList<>();
+        for (Field field : EntityParse.getFields(entityClass)) {
+            Id id = field.getAnnotation(Id.class);
+            String column = id != null ? EntityParse.getIdName(field) : EntityParse.getColumn(field);
+            if (TextUtils.isEmpty(column)) {
+                continue;
+            }
+
+            EntityField entityField = new EntityField(field, column, id);
+            fieldList.add(entityField);
+            columnList.add(column);
+            if (id != null) {
+                if (idField == null) {
+                    idField = entityField;
+                }
+                if (id.type() != IdType.AUTO) {
+                    insertList.add(entityField);
+                }
+            } else {
+                insertList.add(entityField);
+                updateList.add(entityField);
+                updateColumnList.add(column);
+            }
+        }
+
+        this.id = idField;
+        this.fields = Collections.unmodifiableList(fieldList);
+        this.insertFields = Collections.unmodifiableList(insertList);
+        this.updateFields = Collections.unmodifiableList(updateList);
+        this.columns = Collections.unmodifiableList(columnList);
+        this.updateColumns = Collections.unmodifiableList(updateColumnList);
+    }
+
+    public static EntityMetadata of(Class<?> entityClass) {
+        boolean mapUnderscoreToCamelCase = JdbcPlusTemplateFactory.isMapUnderscoreToCamelCase();
+        EntityMetadata metadata = CACHE.get(entityClass);
+        if (metadata == null || metadata.mapUnderscoreToCamelCase != mapUnderscoreToCamelCase) {
+            metadata = new EntityMetadata(entityClass, mapUnderscoreToCamelCase);
+            CACHE.put(entityClass, metadata);
+        }
+        return metadata;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * 通过无参构造器创建实体，构造器在首次调用时解析
+     */
+    public Object newInstance() {
+        MethodHandle handle = constructor;
+        if (handle == null) {
+            try {
+                Constructor<?> ctor = entityClass.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                handle = MethodHandles.lookup().unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Class " + entityClass.getName() + " has no accessible no-arg constructor", e);
+            }
+            constructor = handle;
+        }
+        try {
+            return handle.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to instantiate " + entityClass.getName(), e);
+        }
+    }
+
+    public String getTable() {
+        if (table == null) {
+            throw new IllegalArgumentException("Table " + entityClass.getName() + " has no @Table annotation");
+        }
+        return table;
+    }
+
+    /**
+     * @return 主键字段，实体没有 @Id 时为 null
+     */
+    public EntityField getId() {
+        return id;
+    }
+
+    public EntityField requireId() {
+        if (id == null) {
+            throw new IllegalArgumentException("Table " + entityClass.getName() + " has no @Id annotation");
+        }
+        return id;
+    }
+
+    public IdType getIdType() {
+        return id == null ? null : id.getIdType();
+    }
+
+    /**
+     * @return 自增主键字段，插入后需要回写生成的主键，没有时为 null
+     */
+    public EntityField getAutoId() {
+        return id != null && id.getIdType() == IdType.AUTO ? id : null;
+    }
+
+    /**
+     * @return 全部持久化字段（含主键），按声明顺序
+     */
+    public List<EntityField> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return 插入时写入的字段，不含自增主键
+     */
+    public List<EntityField> getInsertFields() {
+        return insertFields;
+    }
+
+    /**
+     * @return 更新时可写入的字段，不含主键
+     */
+    public List<EntityField> getUpdateFields() {
+        return updateFields;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return 可更新字段的列名，与 {@link #getUpdateFields()} 顺序一致
+     */
+    public List<String> getUpdateColumns() {
+        return updateColumns;
+    }
+}
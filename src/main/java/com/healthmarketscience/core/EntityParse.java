@@ -1,7 +1,5 @@
 package com.healthmarketscience.core;
 
-import com.healthmarketscience.sqlbuilder.InsertQuery;
-import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
 import com.healthmarketscience.template.JdbcPlusTemplateFactory;
 import com.healthmarketscience.wrapper.Update;
 
@@ -16,11 +14,7 @@ public class EntityParse {
     private static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
 
     public static String getTable(Class<?> clazz) {
-        Table table = clazz.getAnnotation(Table.class);
-        if (table == null) {
-            throw new IllegalArgumentException("Table " + clazz.getName() + " has no @Table annotation");
-        }
-        return table.value();
+        return EntityMetadata.of(clazz).getTable();
     }
 
     public static boolean ignore(Field field) {
@@ -43,109 +37,96 @@ public class EntityParse {
     }
 
     public static void resolveField(List<String> id, String idAlias, List<com.healthmarketscience.wrapper.Column> columns, Class<?> entity) {
-        for (Field field : getFields(entity)) {
-            if (field.isAnnotationPresent(Id.class)) {
-                String idValue = getIdName(field);
-                id.add(idValue);
-                idAlias = NamingConversionUtils.camelToSnake(field.getName());
-                columns.add(new com.healthmarketscience.wrapper.Column(idValue));
-                continue;
-            }
-
-            String columnName = getColumn(field);
-            if (TextUtils.isEmpty(columnName)) {
-                continue;
+        for (EntityField field : EntityMetadata.of(entity).getFields()) {
+            if (field.isId()) {
+                id.add(field.getColumn());
             }
-            columns.add(new com.healthmarketscience.wrapper.Column(columnName));
+            columns.add(new com.healthmarketscience.wrapper.Column(field.getColumn()));
         }
     }
 
     public static String getIdName(Field field) {
         Id id = field.getAnnotation(Id.class);
-        String result;
         if (id != null && TextUtils.isNotEmpty(id.value())) {
-            result = id.value();
-        } else {
-            result = JdbcPlusTemplateFactory.getJdbcPlusProperties().getMapUnderscoreToCamelCase() ? NamingConversionUtils.camelToSnake(field.getName()) : field.getName();
+            return id.value();
         }
-
-        return result;
+        return defaultColumn(field);
     }
 
+    /**
+     * @return 字段对应的列名，@Column(ignore = true) 的字段返回空串
+     */
     public static String getColumn(Field field) {
         Column column = field.getAnnotation(Column.class);
-        String result;
         if (column == null) {
-            result = JdbcPlusTemplateFactory.getJdbcPlusProperties().getMapUnderscoreToCamelCase() ? NamingConversionUtils.camelToSnake(field.getName()) : field.getName();
-        } else {
-            if (!column.ignore()) {
-                result = column.value();
-            } else {
-                return "";
-            }
+            return defaultColumn(field);
         }
+        if (column.ignore()) {
+            return "";
+        }
+        return TextUtils.isNotEmpty(column.value()) ? column.value() : defaultColumn(field);
+    }
 
-        return result;
+    private static String defaultColumn(Field field) {
+        return JdbcPlusTemplateFactory.isMapUnderscoreToCamelCase() ? NamingConversionUtils.camelToSnake(field.getName()) : field.getName();
     }
 
     public static Object resolveUpdate(Class<?> clazz, Object entity, List<Update> updates) {
-        Object tableIdValue = null;
-
-        for (Field field : getFields(clazz)) {
-            try {
-                if (field.isAnnotationPresent(Id.class)) {
-                    tableIdValue = field.get(entity);
-                }
-
-                setUpdateColumn(entity, updates, field);
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        for (EntityField field : metadata.getUpdateFields()) {
+            Object value = field.get(entity);
+            if (value != null) {
+                updates.add(new Update(new com.healthmarketscience.wrapper.Column(field.getColumn()), value));
             }
         }
 
-        return tableIdValue;
+        return metadata.getId() == null ? null : metadata.getId().get(entity);
     }
 
+    /**
+     * 生成非自增主键并收集非空列
+     *
+     * @return 自增主键字段，插入后需回写生成的主键，没有时为 null
+     */
     public static Field resolveInsert(Class<?> clazz, Object entity, List<Update> updates) {
-        Field tableIdField = null;
-        for (Field field : getFields(clazz)) {
-            try {
-                if (field.isAnnotationPresent(Id.class)) {
-                    Id id = field.getAnnotation(Id.class);
-                    Object val = IdGeneratorFactory.getIdGenerator(id.type()).generateId();
-                    if (id.type().equals(IdType.AUTO)) {
-                        tableIdField = field;
-                    } else {
-                        field.set(entity, val);
-                        updates.add(new Update(new com.healthmarketscience.wrapper.Column(getIdName(field)), val));
-                    }
-                    continue;
-                }
-
-                setUpdateColumn(entity, updates, field);
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        for (EntityField field : metadata.getInsertFields()) {
+            Object value = field.isId() ? generateId(field, entity) : field.get(entity);
+            if (value != null || field.isId()) {
+                updates.add(new Update(new com.healthmarketscience.wrapper.Column(field.getColumn()), value));
             }
         }
 
-        return tableIdField;
+        EntityField autoId = metadata.getAutoId();
+        return autoId == null ? null : autoId.getField();
     }
 
-    private static void setUpdateColumn(Object entity, List<Update> updates, Field field) throws IllegalAccessException {
-        Object value = field.get(entity);
+    public static Object[] resolveInsertValues(List<EntityField> fields, Object entity) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            EntityField field = fields.get(i);
+            values[i] = field.isId() ? generateId(field, entity) : field.get(entity);
+        }
+
+        return values;
+    }
+
+    /**
+     * 按主键策略生成主键并写回实体，生成器返回 null 时保留实体上已有的值
+     */
+    private static Object generateId(EntityField field, Object entity) {
+        Object value = IdGeneratorFactory.getIdGenerator(field.getIdType()).generateId();
         if (value != null) {
-            String column = getColumn(field);
-            if (TextUtils.isEmpty(column)) {
-                return;
-            }
-            updates.add(new Update(new com.healthmarketscience.wrapper.Column(column), value));
+            field.set(entity, value);
+            return value;
         }
+        return field.get(entity);
     }
 
     public static List<com.healthmarketscience.wrapper.Column> getColumns(Class<?> clazz) {
         List<com.healthmarketscience.wrapper.Column> columns = new ArrayList<>();
-        for (Field field : getFields(clazz)) {
-            columns.add(new com.healthmarketscience.wrapper.Column(getColumn(field)));
+        for (String column : EntityMetadata.of(clazz).getColumns()) {
+            columns.add(new com.healthmarketscience.wrapper.Column(column));
         }
 
         return columns;
@@ -153,13 +134,9 @@ public class EntityParse {
 
     public static void setIdValue(Object entity, Field field, Number key) {
         try {
-            Class<?> fieldType = field.getType();
-            if (fieldType == Long.class || fieldType == long.class) {
-                field.set(entity, key.longValue());
-            } else if (fieldType == Integer.class || fieldType == int.class) {
-                field.set(entity, key.intValue());
-            } else if (fieldType == String.class) {
-                field.set(entity, key.toString());
+            Object value = EntityField.toKey(field.getType(), key);
+            if (value != null) {
+                field.set(entity, value);
             }
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Failed to set primary key field", e);
@@ -2,4 +2,11 @@ package com.healthmarketscience.core;
 
 public interface IdGenerator {
     Object generateId();
+
+    /**
+     * @return 注册为 Spring Bean 时覆盖的主键策略，为 null 时不注册
+     */
+    default IdType getIdType() {
+        return null;
+    }
 }
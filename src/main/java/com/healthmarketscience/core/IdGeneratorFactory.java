@@ -1,18 +1,31 @@
 package com.healthmarketscience.core;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IdGeneratorFactory {
-    private final static Map<IdType, IdGenerator> map = new HashMap<IdType, IdGenerator>();
+    private final static Map<IdType, IdGenerator> map = new ConcurrentHashMap<>();
 
     static {
         map.put(IdType.UUID, new UUIDGenerator());
         map.put(IdType.AUTO, new AutoGenerator());
         map.put(IdType.NONE, new NoneGenerator());
+        map.put(IdType.SNOWFLAKE, new SnowflakeGenerator(0));
+        map.put(IdType.UUID_V7, new UUIDv7Generator());
     }
 
     public static IdGenerator getIdGenerator(IdType idType) {
-        return map.get(idType);
+        IdGenerator generator = map.get(idType);
+        if (generator == null) {
+            throw new IllegalStateException("No IdGenerator registered for " + idType);
+        }
+        return generator;
+    }
+
+    /**
+     * 注册或替换主键策略对应的生成器，SEGMENT 依赖数据源，在创建 JdbcPlusTemplate 时注册
+     */
+    public static void register(IdType idType, IdGenerator generator) {
+        map.put(idType, generator);
     }
 }
@@ -3,5 +3,17 @@ package com.healthmarketscience.core;
 public enum IdType {
     UUID,
     AUTO,
-    NONE
+    NONE,
+    /**
+     * 64 位趋势递增 Long：41 位毫秒时间戳、10 位 workerId、12 位序列
+     */
+    SNOWFLAKE,
+    /**
+     * 号段分配的 Long，一次从序列表预留一段 ID 在内存中发放
+     */
+    SEGMENT,
+    /**
+     * 按时间排序的 UUIDv7，与 UUID 一样输出去掉横线的 32 位十六进制
+     */
+    UUID_V7
 }
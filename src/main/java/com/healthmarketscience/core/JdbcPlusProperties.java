@@ -6,6 +6,64 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class JdbcPlusProperties {
     private Boolean mapUnderscoreToCamelCase;
 
+    /**
+     * 是否将字面量渲染为 ? 绑定参数并通过 PreparedStatement 执行；
+     * 参数个数超过方言上限的语句（如 SQL Server 的大 IN 列表）在参数均为数值时仍以字面量渲染（DEBUG 日志记录），否则抛出异常
+     */
+    private Boolean useBindParameters = false;
+
+    /**
+     * 数据库方言，用于多行插入时按参数个数与语句长度拆分
+     */
+    private Dialect dialect = Dialect.OTHER;
+
+    /**
+     * 流式查询每次从数据库拉取的行数，小于等于 0 时使用驱动默认值；
+     * MySQL 需开启 useCursorFetch，PostgreSQL 需在关闭自动提交的事务中执行才会按批拉取
+     */
+    private Integer fetchSize = 1000;
+
+    /**
+     * 是否记录 selectById/selectList 查询出的实体快照，updateById 时只更新发生变化的列
+     */
+    private Boolean dirtyTracking = false;
+
+    /**
+     * SNOWFLAKE 主键的 workerId，取值 0-1023，多实例部署时需各不相同
+     */
+    private Integer workerId = 0;
+
+    /**
+     * SEGMENT 主键使用的序列表
+     */
+    private String idSegmentTable = SegmentGenerator.DEFAULT_TABLE;
+
+    /**
+     * SEGMENT 主键每次从序列表预留的 ID 个数
+     */
+    private Integer idSegmentStep = SegmentGenerator.DEFAULT_STEP;
+
+    /**
+     * 执行前的查询校验策略，生产环境可改为 ONCE_PER_SHAPE 或 NEVER 以跳过重复的整树校验
+     */
+    private ValidationPolicy validation = ValidationPolicy.ALWAYS;
+
+    /**
+     * 超过该元素个数的 IN 列表拆分为 IN (...) OR IN (...)，为空时取方言上限（Oracle 为 1000）
+     */
+    private Integer inListChunkSize;
+
+    /**
+     * PostgreSQL 开启 useBindParameters 时，达到该元素个数的 IN 列表改为 = ANY(?) 绑定单个数组参数，小于等于 0 时不使用
+     */
+    private Integer inListArrayThreshold = 100;
+
+    /**
+     * 事务中达到该元素个数的 IN 列表先批量写入会话临时表再以子查询匹配（PostgreSQL、MySQL、SQL Server），
+     * 小于等于 0 时不使用
+     */
+    private Integer inListTempTableThreshold = 0;
+
     public Boolean getMapUnderscoreToCamelCase() {
         return mapUnderscoreToCamelCase;
     }
@@ -13,4 +71,92 @@ public class JdbcPlusProperties {
     public void setMapUnderscoreToCamelCase(Boolean mapUnderscoreToCamelCase) {
         this.mapUnderscoreToCamelCase = mapUnderscoreToCamelCase;
     }
+
+    public Boolean getUseBindParameters() {
+        return useBindParameters;
+    }
+
+    public void setUseBindParameters(Boolean useBindParameters) {
+        this.useBindParameters = useBindParameters;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public void setDialect(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(Integer fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public Boolean getDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    public void setDirtyTracking(Boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+    }
+
+    public Integer getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(Integer workerId) {
+        this.workerId = workerId;
+    }
+
+    public String getIdSegmentTable() {
+        return idSegmentTable;
+    }
+
+    public void setIdSegmentTable(String idSegmentTable) {
+        this.idSegmentTable = idSegmentTable;
+    }
+
+    public Integer getIdSegmentStep() {
+        return idSegmentStep;
+    }
+
+    public void setIdSegmentStep(Integer idSegmentStep) {
+        this.idSegmentStep = idSegmentStep;
+    }
+
+    public ValidationPolicy getValidation() {
+        return validation;
+    }
+
+    public void setValidation(ValidationPolicy validation) {
+        this.validation = validation;
+    }
+
+    public Integer getInListChunkSize() {
+        return inListChunkSize;
+    }
+
+    public void setInListChunkSize(Integer inListChunkSize) {
+        this.inListChunkSize = inListChunkSize;
+    }
+
+    public Integer getInListArrayThreshold() {
+        return inListArrayThreshold;
+    }
+
+    public void setInListArrayThreshold(Integer inListArrayThreshold) {
+        this.inListArrayThreshold = inListArrayThreshold;
+    }
+
+    public Integer getInListTempTableThreshold() {
+        return inListTempTableThreshold;
+    }
+
+    public void setInListTempTableThreshold(Integer inListTempTableThreshold) {
+        this.inListTempTableThreshold = inListTempTableThreshold;
+    }
 }
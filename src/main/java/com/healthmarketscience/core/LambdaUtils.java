@@ -7,24 +7,50 @@ import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Method;
 
 public class LambdaUtils {
+    /**
+     * 按 Lambda 实现类缓存解析出的属性名与下划线列名，每个方法引用只反射解析一次；
+     * 两种命名都已缓存，mapUnderscoreToCamelCase 变化时按当前配置选择，无需清理
+     */
+    private static final ClassValue<ColumnNameHolder> COLUMN_NAMES = new ClassValue<>() {
+        @Override
+        protected ColumnNameHolder computeValue(Class<?> type) {
+            return new ColumnNameHolder();
+        }
+    };
+
     private LambdaUtils() {
     }
 
     public static <T> String extractColumnName(SFunction<T, ?> func) {
+        ColumnNameHolder holder = COLUMN_NAMES.get(func.getClass());
+        ColumnName columnName = holder.columnName;
+        if (columnName == null) {
+            String property = resolvePropertyName(func);
+            columnName = new ColumnName(property, NamingConversionUtils.camelToSnake(property));
+            holder.columnName = columnName;
+        }
+        return JdbcPlusTemplateFactory.isMapUnderscoreToCamelCase() ? columnName.snake() : columnName.property();
+    }
+
+    private static String resolvePropertyName(SFunction<?, ?> func) {
         try {
             Method writeReplace = func.getClass().getDeclaredMethod("writeReplace");
             writeReplace.setAccessible(true);
             SerializedLambda serializedLambda = (SerializedLambda) writeReplace.invoke(func);
             String methodName = serializedLambda.getImplMethodName();
-            String result;
             if (methodName.startsWith("get")) {
-                result = Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
-            } else {
-                result = methodName;
+                return Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
             }
-            return JdbcPlusTemplateFactory.getJdbcPlusProperties().getMapUnderscoreToCamelCase() ? NamingConversionUtils.camelToSnake(result) : result;
+            return methodName;
         } catch (Exception e) {
             throw new RuntimeException("Failed to extract field name from lambda", e);
         }
     }
+
+    private record ColumnName(String property, String snake) {
+    }
+
+    private static final class ColumnNameHolder {
+        private volatile ColumnName columnName;
+    }
 }
@@ -0,0 +1,172 @@
+package com.healthmarketscience.core;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段（hi/lo）主键生成器，每次从序列表预留 step 个 ID，号段内由 AtomicLong 无锁发放，用尽时才访问数据库；
+ * 序列表需预先创建，不存在的序列行会自动插入：
+ * <pre>
+ * CREATE TABLE jdbc_plus_sequence (name VARCHAR(64) PRIMARY KEY, next_id BIGINT NOT NULL)
+ * </pre>
+ * 预留使用独立连接并立即提交，不受调用方事务回滚影响；PostgreSQL 通过 UPDATE ... RETURNING 一次往返完成
+ */
+public class SegmentGenerator implements IdGenerator {
+    public static final String DEFAULT_TABLE = "jdbc_plus_sequence";
+    public static final String DEFAULT_NAME = "default";
+    public static final int DEFAULT_STEP = 1000;
+
+    private final DataSource dataSource;
+    private final String name;
+    private final int step;
+    private final boolean returning;
+    private final String updateSql;
+    private final String selectSql;
+    private final String insertSql;
+    private volatile Segment current = new Segment(0, 0);
+
+    public SegmentGenerator(DataSource dataSource, Dialect dialect) {
+        this(dataSource, dialect, DEFAULT_TABLE, DEFAULT_NAME, DEFAULT_STEP);
+    }
+
+    public SegmentGenerator(DataSource dataSource, Dialect dialect, String table, String name, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Segment step must be positive, given: " + step);
+        }
+        this.dataSource = dataSource;
+        this.name = name;
+        this.step = step;
+        this.returning = dialect == Dialect.POSTGRESQL;
+        this.updateSql = "UPDATE " + table + " SET next_id = next_id + ? WHERE (name = ?)" + (returning ? " RETURNING next_id" : "");
+        this.selectSql = "SELECT next_id FROM " + table + " WHERE (name = ?)";
+        this.insertSql = "INSERT INTO " + table + " (name,next_id) VALUES (?,1)";
+    }
+
+    @Override
+    public Object generateId() {
+        return nextId();
+    }
+
+    public long nextId() {
+        while (true) {
+            Segment segment = current;
+            long id = segment.next.getAndIncrement();
+            if (id < segment.end) {
+                return id;
+            }
+            synchronized (this) {
+                if (current == segment) {
+                    current = allocate();
+                }
+            }
+        }
+    }
+
+    private Segment allocate() {
+        try (Connection con = dataSource.getConnection()) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                Long end = returning ? transactional(con, () -> incrementReturning(con)) : transactional(con, () -> increment(con));
+                if (end != null) {
+                    return new Segment(end - step, end);
+                }
+                createSequence(con);
+            }
+            throw new IllegalStateException("Unable to create id sequence: " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to allocate id segment: " + name, e);
+        }
+    }
+
+    private Long incrementReturning(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(updateSql)) {
+            ps.setInt(1, step);
+            ps.setString(2, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * 递增并读取，在同一事务内执行时行锁保证并发进程拿到的号段不重叠
+     */
+    private Long increment(Connection con) throws SQLException {
+        try (PreparedStatement update = con.prepareStatement(updateSql)) {
+            update.setInt(1, step);
+            update.setString(2, name);
+            if (update.executeUpdate() != 1) {
+                return null;
+            }
+        }
+        try (PreparedStatement select = con.prepareStatement(selectSql)) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * 插入序列行；并发插入同一序列行时主键冲突，重试递增即可，其余错误（表不存在、无权限等）向上抛出
+     */
+    private void createSequence(Connection con) throws SQLException {
+        try {
+            transactional(con, () -> {
+                try (PreparedStatement ps = con.prepareStatement(insertSql)) {
+                    ps.setString(1, name);
+                    return ps.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            SQLErrorCodeSQLExceptionTranslator translator =
+                    new SQLErrorCodeSQLExceptionTranslator(con.getMetaData().getDatabaseProductName());
+            if (!(translator.translate("createSequence", insertSql, e) instanceof DuplicateKeyException)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 在独立事务中执行并立即提交，连接池配置 autoCommit=false 时预留也不会在归还连接时被回滚
+     */
+    private static <R> R transactional(Connection con, SqlWork<R> work) throws SQLException {
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try {
+            R result = work.execute();
+            con.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    private interface SqlWork<R> {
+        R execute() throws SQLException;
+    }
+
+    @Override
+    public IdType getIdType() {
+        return IdType.SEGMENT;
+    }
+
+    private static final class Segment {
+        private final AtomicLong next;
+        private final long end;
+
+        Segment(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.healthmarketscience.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁 Snowflake 生成器，时间戳、workerId 与序列打包在一个 AtomicLong 中通过 CAS 推进；
+ * 同一毫秒序列用尽或时钟回拨时沿用上一个时间戳继续递增（借用后续毫秒），保证单调且不阻塞
+ */
+public class SnowflakeGenerator implements IdGenerator {
+    /**
+     * 2024-01-01T00:00:00Z
+     */
+    private static final long EPOCH = 1704067200000L;
+    private static final int WORKER_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = WORKER_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+
+    private final long worker;
+    private final AtomicLong last;
+
+    public SnowflakeGenerator(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ", given: " + workerId);
+        }
+        this.worker = workerId << SEQUENCE_BITS;
+        this.last = new AtomicLong(worker);
+    }
+
+    @Override
+    public Object generateId() {
+        return nextId();
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long timestamp = previous >>> TIMESTAMP_SHIFT;
+            long now = System.currentTimeMillis() - EPOCH;
+
+            long next;
+            if (now > timestamp) {
+                next = now << TIMESTAMP_SHIFT | worker;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                next = (timestamp + 1) << TIMESTAMP_SHIFT | worker;
+            }
+
+            if (last.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public IdType getIdType() {
+        return IdType.SNOWFLAKE;
+    }
+}
@@ -0,0 +1,48 @@
+package com.healthmarketscience.core;
+
+import com.healthmarketscience.sqlbuilder.Query;
+import com.healthmarketscience.sqlbuilder.SqlContext;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 执行前的查询校验策略，校验需遍历整棵查询树并收集表与列
+ */
+public enum ValidationPolicy {
+    /**
+     * 每次执行前都校验
+     */
+    ALWAYS,
+    /**
+     * 以渲染后的 SQL 作为结构指纹，同一指纹只校验一次；开启 useBindParameters 时字面量不进入指纹，
+     * 绑定为 ? 的 OFFSET/FETCH 等取值交由数据库检查
+     */
+    ONCE_PER_SHAPE,
+    /**
+     * 不校验，错误的查询由数据库报错
+     */
+    NEVER;
+
+    private static final int MAX_SHAPES = 4096;
+    private static final Set<String> VALIDATED_SHAPES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 按策略校验并渲染查询
+     */
+    public String render(Query<?> query, int size, SqlContext context) {
+        if (this == ALWAYS) {
+            return query.validate().toString(size, context);
+        }
+        String sql = query.toString(size, context);
+        if (this == ONCE_PER_SHAPE && !VALIDATED_SHAPES.contains(sql)) {
+            query.validate();
+            // 未绑定参数时字面量不同的 SQL 各占一个指纹，达到上限后清空重新记录
+            if (VALIDATED_SHAPES.size() >= MAX_SHAPES) {
+                VALIDATED_SHAPES.clear();
+            }
+            VALIDATED_SHAPES.add(sql);
+        }
+        return sql;
+    }
+}
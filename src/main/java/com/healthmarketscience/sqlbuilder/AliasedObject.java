@@ -52,6 +52,11 @@ public class AliasedObject extends SqlObject
     _obj.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _obj.getModificationCount();
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
     app.append(_obj).append(" AS ").append(_alias);
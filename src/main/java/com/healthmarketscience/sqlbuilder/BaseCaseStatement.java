@@ -122,6 +122,11 @@ public abstract class BaseCaseStatement<ThisType extends BaseCaseStatement<ThisT
     }
     _whens.collectSchemaObjects(vContext);
   }
+
+  @Override
+  protected long getModificationCount() {
+    return getModificationCount(_operand) + _whens.getModificationCount();
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException {
@@ -156,6 +161,11 @@ public abstract class BaseCaseStatement<ThisType extends BaseCaseStatement<ThisT
     protected void collectSchemaObjects(ValidationContext vContext) {
       _result.collectSchemaObjects(vContext);
     }
+
+    @Override
+    protected long getModificationCount() {
+      return _result.getModificationCount();
+    }
     
     protected void appendResult(AppendableExt app) throws IOException {
       app.append(_result);
@@ -179,6 +189,11 @@ public abstract class BaseCaseStatement<ThisType extends BaseCaseStatement<ThisT
       super.collectSchemaObjects(vContext);
       _test.collectSchemaObjects(vContext);
     }
+
+    @Override
+    protected long getModificationCount() {
+      return super.getModificationCount() + _test.getModificationCount();
+    }
     
     @Override
     public void appendTo(AppendableExt app) throws IOException {
@@ -17,7 +17,10 @@ limitations under the License.
 package com.healthmarketscience.sqlbuilder;
 
 import java.io.IOException;
+import java.util.Collection;
+
 import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.dbspec.Table;
 
 
 /**
@@ -37,6 +40,22 @@ abstract class BaseInsertQuery<ThisType extends BaseInsertQuery<ThisType>>
     _table = tableStr;
   }
 
+  /** @return the table into which the values are inserted */
+  SqlObject getTable() {
+    return _table;
+  }
+
+  /**
+   * @return the Table into which the values are inserted, or {@code null} if
+   *         the table was given as custom SQL
+   */
+  public Table getIntoTable() {
+    ValidationContext vContext = new ValidationContext(true);
+    _table.collectSchemaObjects(vContext);
+    Collection<Table> tables = vContext.getTables();
+    return(tables.isEmpty() ? null : tables.iterator().next());
+  }
+
   @Override
   protected void collectSchemaObjects(ValidationContext vContext) {
     super.collectSchemaObjects(vContext);
@@ -56,6 +56,13 @@ public class BetweenCondition extends Condition {
     _minValue.collectSchemaObjects(vContext);
     _maxValue.collectSchemaObjects(vContext);
   }
+
+  @Override
+  protected long getModificationCount() {
+    return (_value.getModificationCount() +
+            _minValue.getModificationCount() +
+            _maxValue.getModificationCount());
+  }
   
   @Override
   public void appendTo(AppendableExt app) throws IOException {
@@ -100,6 +100,12 @@ public class BinaryCondition extends Condition
     _rightValue.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return (_leftValue.getModificationCount() +
+            _rightValue.getModificationCount());
+  }
+
   protected boolean supportsEscape(Object binaryOp) {
     return ((binaryOp == Op.LIKE) || (binaryOp == Op.NOT_LIKE));
   }
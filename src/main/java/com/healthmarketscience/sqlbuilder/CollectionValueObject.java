@@ -4,8 +4,6 @@ import com.healthmarketscience.common.util.AppendableExt;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class CollectionValueObject extends Expression {
     private Collection<?> _value;
@@ -18,6 +16,13 @@ public class CollectionValueObject extends Expression {
         _value = value;
     }
 
+    /**
+     * @return the number of values in this collection
+     */
+    public int size() {
+        return _value.size();
+    }
+
     @Override
     public boolean hasParens() {
         return false;
@@ -29,15 +34,32 @@ public class CollectionValueObject extends Expression {
 
     @Override
     public void appendTo(AppendableExt app) throws IOException {
-        String content;
         if (_value.isEmpty()) {
-            content = "[]";
-        } else {
-            content = _value.stream()
-                    .map(i -> (i instanceof String) ? "'" + i + "'" : Objects.toString(i))
-                    .collect(Collectors.joining(","));
+            app.append("([])");
+            return;
+        }
+
+        // append element by element, large lists are never joined into an
+        // intermediate String
+        SqlContext context = SqlContext.getContext(app);
+        boolean useBindParameters = context.getUseBindParameters();
+        app.append("(");
+        boolean first = true;
+        for (Object item : _value) {
+            if (!first) {
+                app.append(",");
+            }
+            if (useBindParameters) {
+                context.addParameter(ValueObject.toParameter(item));
+                app.append("?");
+            } else if (item instanceof String) {
+                app.append("'").append((String) item).append("'");
+            } else {
+                app.append(String.valueOf(item));
+            }
+            first = false;
         }
-        app.append("(").append(content).append(")");
+        app.append(")");
     }
 
 }
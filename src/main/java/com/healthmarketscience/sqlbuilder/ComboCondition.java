@@ -84,6 +84,11 @@ public class ComboCondition extends Condition
     _conditions.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _conditions.getModificationCount();
+  }
+
   @Override
   public boolean isEmpty() {
     return areEmpty(_conditions);
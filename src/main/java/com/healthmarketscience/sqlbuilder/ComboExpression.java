@@ -80,6 +80,11 @@ public class ComboExpression extends Expression
     _expressions.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _expressions.getModificationCount();
+  }
+
   @Override
   public boolean isEmpty() {
     return areEmpty(_expressions);
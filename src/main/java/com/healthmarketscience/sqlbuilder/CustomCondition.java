@@ -52,6 +52,11 @@ public class CustomCondition extends Condition
       _cond.collectSchemaObjects(vContext);
     }
   }
+
+  @Override
+  protected long getModificationCount() {
+    return getModificationCount(_cond);
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException {
@@ -52,6 +52,11 @@ public class CustomExpression extends Expression
       _expr.collectSchemaObjects(vContext);
     }
   }
+
+  @Override
+  protected long getModificationCount() {
+    return getModificationCount(_expr);
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException {
@@ -47,6 +47,19 @@ public abstract class CustomizableSqlObject extends SqlObject
     }
   }
 
+  @Override
+  protected long getModificationCount() {
+    long modCount = 0L;
+    if(_customizations != null) {
+      // customizations are only ever added
+      modCount = _customizations.size();
+      for(Customization cust : _customizations) {
+        modCount += cust.getObject().getModificationCount();
+      }
+    }
+    return modCount;
+  }
+
   /**
    * Appends the appropriate customizations for the given anchor (and possibly
    * the anchor clause itself) based on whether or not the clause should be
@@ -168,6 +181,21 @@ public abstract class CustomizableSqlObject extends SqlObject
                                           Converter.toCustomSqlObject(obj)));
   }
 
+  /**
+   * Adds all the customizations of the given object to this object (the
+   * customization objects themselves are shared).
+   */
+  protected void copyCustomizations(CustomizableSqlObject other) {
+    if(other._customizations == null) {
+      return;
+    }
+    if(_customizations == null) {
+      _customizations = new ArrayList<Customization>(
+          other._customizations.size());
+    }
+    _customizations.addAll(other._customizations);
+  }
+
   /**
    * Utility class for a SQL customization.
    */
@@ -70,6 +70,11 @@ public class ExtractExpression extends Expression
     _dateExpression.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _dateExpression.getModificationCount();
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
     app.append("EXTRACT(")
@@ -34,6 +34,8 @@ public class FunctionCall extends Expression
   private SqlObject _functionName;
   private SqlObjectList<SqlObject> _params = SqlObjectList.create();
   private SqlObject _window;
+  /** modifications of the window clause */
+  private long _modCount;
 
   public FunctionCall(Function function) {
     this((Object)function);
@@ -90,6 +92,7 @@ public class FunctionCall extends Expression
    * @see WindowDefinitionClause
    */
   public FunctionCall setWindow(Object window) {
+    _modCount += getModificationCount(_window) + 1L;
     _window = Converter.toCustomColumnSqlObject(window);
     return this;
   }
@@ -99,6 +102,7 @@ public class FunctionCall extends Expression
    * window definition, like <code>"OVER &lt;windowClauseName&gt;"</code>.
    */
   public FunctionCall setWindowByName(String windowName) {
+    _modCount += getModificationCount(_window) + 1L;
     _window = new CustomSql(windowName);
     return this;
   }
@@ -110,6 +114,12 @@ public class FunctionCall extends Expression
     collectSchemaObjects(_window, vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return (_modCount + _params.getModificationCount() +
+            getModificationCount(_window));
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
     app.append(_functionName).append("(");
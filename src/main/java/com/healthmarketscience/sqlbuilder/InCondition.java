@@ -100,6 +100,12 @@ public class InCondition extends Condition {
     _rightValues.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return (_leftValue.getModificationCount() +
+            _rightValues.getModificationCount());
+  }
+
   /**
    * Returns {@code true} if the entire contents of the tested values is a single
    * Expression with parens.
@@ -17,21 +17,54 @@ limitations under the License.
 package com.healthmarketscience.sqlbuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.common.util.RenderBuffers;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookAnchor;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
 import com.healthmarketscience.sqlbuilder.dbspec.Column;
 import com.healthmarketscience.sqlbuilder.dbspec.Table;
 import java.util.Collection;
+import java.util.List;
 
 
 /**
  * Query which generates a simple INSERT statement.
+ * <p>
+ * Multiple rows may be inserted in a single statement
+ * <code>"VALUES (...),(...),..."</code> by declaring the columns with
+ * {@link #addRowColumns} and adding each row with {@link #addRow}.  If
+ * values were also added along with the columns (e.g. using
+ * {@link #addColumn}), they form the first row.  A large multi-row query can
+ * be broken into statements which respect database limits using
+ * {@link #split}.
+ * <p>
+ * Note that this query supports custom SQL syntax, see {@link Hook} for more
+ * details.
  *
  * @author James Ahlborn
  */
 public class InsertQuery extends BaseInsertQuery<InsertQuery>
 {
+  /**
+   * The HookAnchors supported for INSERT queries.  See {@link com.healthmarketscience.sqlbuilder.custom}
+   * for more details on custom SQL syntax.
+   */
+  public enum Hook implements HookAnchor {
+    /** Anchor for the beginning of the query, only supports {@link
+        HookType#BEFORE} */
+    HEADER,
+    /** Anchor for the end of the query, only supports {@link
+        HookType#BEFORE} */
+    TRAILER;
+  }
+
   private SqlObjectList<SqlObject> _values = SqlObjectList.create();
+  /** additional rows for a multi-row insert, may be empty */
+  private List<SqlObjectList<SqlObject>> _rows =
+    new ArrayList<SqlObjectList<SqlObject>>();
 
   /** @param table table into which to insert the values. */
   public InsertQuery(Table table) {
@@ -122,6 +155,157 @@ public class InsertQuery extends BaseInsertQuery<InsertQuery>
     return this;
   }
 
+  /**
+   * Adds the given columns (without values) to the query, for use with
+   * {@link #addRow}.
+   * <p>
+   * {@code Object} -&gt; {@code SqlObject} conversions handled by
+   * {@link Converter#CUSTOM_COLUMN_TO_OBJ}.
+   */
+  public InsertQuery addCustomRowColumns(Object... columnStrs) {
+    _columns.addObjects(Converter.CUSTOM_COLUMN_TO_OBJ, columnStrs);
+    return this;
+  }
+
+  /** Adds the given columns (without values) to the query, for use with
+      {@link #addRow}. */
+  public InsertQuery addRowColumns(Column... columns) {
+    return addCustomRowColumns((Object[])columns);
+  }
+
+  /**
+   * Adds a row of values to the query, in the order of the columns.  Each
+   * row must have the same number of values as there are columns.
+   * <p>
+   * {@code Object} -&gt; {@code SqlObject} conversions handled by
+   * {@link Converter#VALUE_TO_OBJ}.
+   */
+  public InsertQuery addRow(Object... values) {
+    SqlObjectList<SqlObject> row = SqlObjectList.create();
+    row.addObjects(Converter.VALUE_TO_OBJ, values);
+    _rows.add(row);
+    return this;
+  }
+
+  /**
+   * Adds custom SQL to this query.  See {@link com.healthmarketscience.sqlbuilder.custom} for more details on
+   * custom SQL syntax.
+   * @param hook the part of the query being customized
+   * @param type the type of customization
+   * @param obj the custom sql.  The {@code Object} -&gt; {@code SqlObject}
+   *            conversions handled by {@link Converter#toCustomSqlObject}.
+   */
+  public InsertQuery addCustomization(Hook hook, HookType type, Object obj) {
+    super.addCustomization(hook, type, obj);
+    return this;
+  }
+
+  /**
+   * Adds custom SQL to this query.  See {@link com.healthmarketscience.sqlbuilder.custom} for more details on
+   * custom SQL syntax.
+   * @param obj the custom sql syntax on which the
+   *            {@link CustomSyntax#apply(InsertQuery)} method will be
+   *            invoked (may be {@code null}).
+   */
+  public InsertQuery addCustomization(CustomSyntax obj) {
+    if(obj != null) {
+      obj.apply(this);
+    }
+    return this;
+  }
+
+  /** @return the number of rows of values in this query */
+  public int getRowCount() {
+    return (_values.isEmpty() ? 0 : 1) + _rows.size();
+  }
+
+  /**
+   * Splits the rows of this query into one or more queries, each of which
+   * has at most the given number of rows, bind parameters and characters.
+   * A row which on its own exceeds a limit is put into its own query.  Note,
+   * common table expressions are not carried over to the new queries (custom
+   * SQL syntax is).
+   *
+   * @param maxRows maximum number of rows per query, {@code <= 0} for no
+   *                limit
+   * @param maxParameters maximum number of values which may be output as
+   *                      bind parameters per query, {@code <= 0} for no
+   *                      limit
+   * @param maxLength maximum (estimated) length of the generated SQL per
+   *                  query, {@code <= 0} for no limit
+   * @return the new queries, in row order
+   */
+  public List<InsertQuery> split(int maxRows, int maxParameters, int maxLength)
+  {
+    List<InsertQuery> chunks = new ArrayList<InsertQuery>();
+    // the length check renders every row, so only pay for it if asked
+    int prefixLength = ((maxLength > 0) ?
+                        RenderBuffers.length(newChunk(), null) : 0);
+
+    InsertQuery chunk = null;
+    int chunkParameters = 0;
+    int chunkLength = 0;
+    for(SqlObjectList<SqlObject> row : getRows()) {
+      int rowParameters = countParameters(row);
+      // "(" + row + ")" + delimiter
+      int rowLength = ((maxLength > 0) ?
+                       (RenderBuffers.length(row, null) + 3) : 0);
+
+      if((chunk == null) ||
+         ((maxRows > 0) && (chunk._rows.size() >= maxRows)) ||
+         ((maxParameters > 0) &&
+          ((chunkParameters + rowParameters) > maxParameters)) ||
+         ((maxLength > 0) && ((chunkLength + rowLength) > maxLength))) {
+        chunk = newChunk();
+        chunks.add(chunk);
+        chunkParameters = 0;
+        chunkLength = prefixLength;
+      }
+
+      chunk._rows.add(row);
+      chunkParameters += rowParameters;
+      chunkLength += rowLength;
+    }
+    return chunks;
+  }
+
+  /** @return a new query for the same table and columns without any rows */
+  private InsertQuery newChunk() {
+    InsertQuery chunk = new InsertQuery(getTable());
+    chunk._columns.addObjects(_columns);
+    chunk.copyCustomizations(this);
+    return chunk;
+  }
+
+  /** @return all rows of values, including the initial column values */
+  private List<SqlObjectList<SqlObject>> getRows() {
+    if(_values.isEmpty()) {
+      return _rows;
+    }
+    List<SqlObjectList<SqlObject>> rows =
+      new ArrayList<SqlObjectList<SqlObject>>(_rows.size() + 1);
+    rows.add(_values);
+    rows.addAll(_rows);
+    return rows;
+  }
+
+  /**
+   * @return the number of values in the given row which would be output as
+   *         bind parameters
+   */
+  private static int countParameters(SqlObjectList<SqlObject> row) {
+    int count = 0;
+    for(SqlObject value : row) {
+      if(value instanceof CollectionValueObject) {
+        count += ((CollectionValueObject)value).size();
+      } else if((value != NULL_VALUE) &&
+                !(value instanceof BooleanValueObject)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
   /**
    * Does Query.validate() and additionally verifies that there are an equal
    * number of columns and values.
@@ -133,9 +317,20 @@ public class InsertQuery extends BaseInsertQuery<InsertQuery>
     // check super
     super.validate(vContext);
 
-    if(_columns.size() != _values.size()) {
+    if(_rows.isEmpty() || !_values.isEmpty()) {
+      validateRow(_values);
+    }
+    for(SqlObjectList<SqlObject> row : _rows) {
+      validateRow(row);
+    }
+  }
+
+  private void validateRow(SqlObjectList<SqlObject> values)
+    throws ValidationException
+  {
+    if(_columns.size() != values.size()) {
       throw new ValidationException("mismatched columns and values for insert, found " +
-                                    _columns.size() + " columns for " + _values.size() +
+                                    _columns.size() + " columns for " + values.size() +
                                     " values");
     }
   }
@@ -144,6 +339,9 @@ public class InsertQuery extends BaseInsertQuery<InsertQuery>
   protected void collectSchemaObjects(ValidationContext vContext) {
     super.collectSchemaObjects(vContext);
     _values.collectSchemaObjects(vContext);
+    for(SqlObjectList<SqlObject> row : _rows) {
+      row.collectSchemaObjects(vContext);
+    }
   }
 
   @Override
@@ -152,7 +350,23 @@ public class InsertQuery extends BaseInsertQuery<InsertQuery>
   {
     newContext.setUseTableAliases(false);
 
+    customAppendTo(app, Hook.HEADER);
+
     appendPrefixTo(app);
-    app.append("VALUES (").append(_values).append(")");
+    if(_rows.isEmpty()) {
+      app.append("VALUES (").append(_values).append(")");
+    } else {
+      app.append("VALUES ");
+      boolean first = true;
+      for(SqlObjectList<SqlObject> row : getRows()) {
+        if(!first) {
+          app.append(SqlObjectList.DEFAULT_DELIMITER);
+        }
+        app.append("(").append(row).append(")");
+        first = false;
+      }
+    }
+
+    customAppendTo(app, Hook.TRAILER);
   }
 }
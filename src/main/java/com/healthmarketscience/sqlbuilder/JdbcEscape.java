@@ -74,11 +74,31 @@ public class JdbcEscape extends Expression
     _val.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _val.getModificationCount();
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
+    if(isBindableValue() && SqlContext.getContext(app).getUseBindParameters()) {
+      // the escaped value will be bound as a typed (java.sql) parameter, so
+      // the escape syntax itself is unnecessary
+      app.append(_val);
+      return;
+    }
     app.append("{").append(_type).append(_val).append("}");
   }
 
+  /**
+   * @return {@code true} if this escape wraps a simple date/time value which
+   *         may be output as a bind parameter, {@code false} otherwise
+   */
+  private boolean isBindableValue() {
+    return (((_type == Type.DATE) || (_type == Type.TIME) ||
+             (_type == Type.TIMESTAMP)) && (_val instanceof ValueObject));
+  }
+
   /** @return a JDBC escaped value with the date portion of the given Date */
   public static JdbcEscape date(Date d) {
     java.sql.Date sqlDate = ((d instanceof java.sql.Date) ?
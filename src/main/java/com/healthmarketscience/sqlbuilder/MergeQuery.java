@@ -0,0 +1,247 @@
+package com.healthmarketscience.sqlbuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookAnchor;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
+import com.healthmarketscience.sqlbuilder.dbspec.Column;
+import com.healthmarketscience.sqlbuilder.dbspec.Table;
+
+
+/**
+ * Query which generates a MERGE (insert or update) statement for a single
+ * row of values, e.g.:
+ * <pre>
+ * MERGE INTO &lt;table&gt; t USING (VALUES (&lt;value&gt;,...)) s (&lt;col&gt;,...)
+ *   ON (t.&lt;key&gt; = s.&lt;key&gt; AND ...)
+ *   WHEN MATCHED THEN UPDATE SET t.&lt;col&gt; = s.&lt;col&gt;,...
+ *   WHEN NOT MATCHED THEN INSERT (&lt;col&gt;,...) VALUES (s.&lt;col&gt;,...)
+ * </pre>
+ * The key columns identify an existing row; the update columns default to
+ * all the non-key columns (the WHEN MATCHED clause is omitted if there are
+ * none).  Databases without table value constructors (e.g. Oracle) can use
+ * a source select instead, see {@link #setSelectSource}.
+ * <p>
+ * Note that this query supports custom SQL syntax, see {@link Hook} for more
+ * details (e.g. Oracle requires {@code " FROM DUAL"} in the source select).
+ */
+public class MergeQuery extends Query<MergeQuery>
+{
+  /**
+   * The HookAnchors supported for MERGE queries.  See {@link com.healthmarketscience.sqlbuilder.custom}
+   * for more details on custom SQL syntax.
+   */
+  public enum Hook implements HookAnchor {
+    /** Anchor for the beginning of the query, only supports {@link
+        HookType#BEFORE} */
+    HEADER,
+    /** Anchor for the end of the source values or select, only supports
+        {@link HookType#BEFORE} */
+    SOURCE,
+    /** Anchor for the end of the query, only supports {@link
+        HookType#BEFORE} */
+    TRAILER;
+  }
+
+  private static final String TARGET_ALIAS = "t";
+  private static final String SOURCE_ALIAS = "s";
+
+  private SqlObject _table;
+  private List<Column> _columns = new ArrayList<Column>();
+  private SqlObjectList<SqlObject> _values = SqlObjectList.create();
+  private List<Column> _keyColumns = new ArrayList<Column>();
+  private List<Column> _updateColumns;
+  private boolean _selectSource;
+
+  /** @param table table into which to merge the values. */
+  public MergeQuery(Table table) {
+    _table = Converter.toCustomTableSqlObject(table);
+  }
+
+  /** Adds the given column and its corresponding value to the query. */
+  public MergeQuery addColumn(Column column, Object value) {
+    _columns.add(column);
+    _values.addObject(Converter.toValueSqlObject(value));
+    return this;
+  }
+
+  /** Adds the given columns and an equal number of QUESTION_MARK values to
+      the query. */
+  public MergeQuery addPreparedColumns(Column... columns) {
+    for(Column column : columns) {
+      addColumn(column, QUESTION_MARK);
+    }
+    return this;
+  }
+
+  /** Adds the given columns to the columns which identify an existing row.
+      Each key column must also be added as a value column. */
+  public MergeQuery addKeyColumns(Column... columns) {
+    _keyColumns.addAll(Arrays.asList(columns));
+    return this;
+  }
+
+  /** Adds the given columns to the columns which are updated when a row
+      exists, replacing the default of all the non-key columns. */
+  public MergeQuery addUpdateColumns(Column... columns) {
+    if(_updateColumns == null) {
+      _updateColumns = new ArrayList<Column>();
+    }
+    _updateColumns.addAll(Arrays.asList(columns));
+    return this;
+  }
+
+  /**
+   * Sets whether the source row is rendered as a select
+   * ({@code "USING (SELECT <value> AS <col>,...) s"}) instead of a table
+   * value constructor ({@code "USING (VALUES (<value>,...)) s (<col>,...)"}).
+   * Note that some databases cannot infer the types of bind parameters in a
+   * source select.
+   */
+  public MergeQuery setSelectSource(boolean selectSource) {
+    _selectSource = selectSource;
+    return this;
+  }
+
+  /**
+   * Adds custom SQL to this query.  See {@link com.healthmarketscience.sqlbuilder.custom} for more details on
+   * custom SQL syntax.
+   * @param hook the part of the query being customized
+   * @param type the type of customization
+   * @param obj the custom sql.  The {@code Object} -&gt; {@code SqlObject}
+   *            conversions handled by {@link Converter#toCustomSqlObject}.
+   */
+  public MergeQuery addCustomization(Hook hook, HookType type, Object obj) {
+    super.addCustomization(hook, type, obj);
+    return this;
+  }
+
+  /**
+   * Adds custom SQL to this query.  See {@link com.healthmarketscience.sqlbuilder.custom} for more details on
+   * custom SQL syntax.
+   * @param obj the custom sql syntax on which the
+   *            {@link CustomSyntax#apply(MergeQuery)} method will be
+   *            invoked (may be {@code null}).
+   */
+  public MergeQuery addCustomization(CustomSyntax obj) {
+    if(obj != null) {
+      obj.apply(this);
+    }
+    return this;
+  }
+
+  @Override
+  protected void collectSchemaObjects(ValidationContext vContext) {
+    super.collectSchemaObjects(vContext);
+    _table.collectSchemaObjects(vContext);
+    _values.collectSchemaObjects(vContext);
+  }
+
+  @Override
+  public void validate(ValidationContext vContext)
+    throws ValidationException
+  {
+    if(_columns.isEmpty()) {
+      throw new ValidationException("Merge query has no columns");
+    }
+    if(_keyColumns.isEmpty()) {
+      throw new ValidationException("Merge query has no key columns");
+    }
+    for(Column column : _keyColumns) {
+      if(!_columns.contains(column)) {
+        throw new ValidationException("Merge key column " +
+                                      column.getColumnNameSQL() +
+                                      " has no value");
+      }
+    }
+  }
+
+  /** @return the explicit update columns, or all the non-key columns */
+  private List<Column> getUpdateColumns() {
+    if(_updateColumns != null) {
+      return _updateColumns;
+    }
+    List<Column> columns = new ArrayList<Column>(_columns);
+    columns.removeAll(_keyColumns);
+    return columns;
+  }
+
+  @Override
+  protected void appendTo(AppendableExt app, SqlContext newContext)
+    throws IOException
+  {
+    newContext.setUseTableAliases(false);
+
+    customAppendTo(app, Hook.HEADER);
+
+    app.append("MERGE INTO ").append(_table).append(" ").append(TARGET_ALIAS)
+      .append(" USING (");
+    if(_selectSource) {
+      app.append("SELECT ");
+      for(int i = 0; i < _columns.size(); ++i) {
+        if(i > 0) {
+          app.append(SqlObjectList.DEFAULT_DELIMITER);
+        }
+        app.append(_values.get(i)).append(" AS ")
+          .append(_columns.get(i).getColumnNameSQL());
+      }
+      customAppendTo(app, Hook.SOURCE);
+      app.append(") ").append(SOURCE_ALIAS);
+    } else {
+      app.append("VALUES (").append(_values).append(")");
+      customAppendTo(app, Hook.SOURCE);
+      app.append(") ").append(SOURCE_ALIAS).append(" (");
+      appendColumnNames(app, "");
+      app.append(")");
+    }
+    app.append(" ON (");
+    appendPairs(app, _keyColumns, " AND ");
+    app.append(")");
+
+    List<Column> updateColumns = getUpdateColumns();
+    if(!updateColumns.isEmpty()) {
+      app.append(" WHEN MATCHED THEN UPDATE SET ");
+      appendPairs(app, updateColumns, SqlObjectList.DEFAULT_DELIMITER);
+    }
+
+    app.append(" WHEN NOT MATCHED THEN INSERT (");
+    appendColumnNames(app, "");
+    app.append(") VALUES (");
+    appendColumnNames(app, SOURCE_ALIAS + ".");
+    app.append(")");
+
+    customAppendTo(app, Hook.TRAILER);
+  }
+
+  /** Appends the value column names, each with the given prefix. */
+  private void appendColumnNames(AppendableExt app, String prefix)
+    throws IOException
+  {
+    for(int i = 0; i < _columns.size(); ++i) {
+      if(i > 0) {
+        app.append(SqlObjectList.DEFAULT_DELIMITER);
+      }
+      app.append(prefix).append(_columns.get(i).getColumnNameSQL());
+    }
+  }
+
+  /** Appends {@code "t.<col> = s.<col>"} for each column. */
+  private static void appendPairs(AppendableExt app, List<Column> columns,
+                                  String delimiter)
+    throws IOException
+  {
+    for(int i = 0; i < columns.size(); ++i) {
+      if(i > 0) {
+        app.append(delimiter);
+      }
+      String name = columns.get(i).getColumnNameSQL();
+      app.append(TARGET_ALIAS).append(".").append(name).append(" = ")
+        .append(SOURCE_ALIAS).append(".").append(name);
+    }
+  }
+}
@@ -52,6 +52,11 @@ public class NegateExpression extends Expression
   protected void collectSchemaObjects(ValidationContext vContext) {
     _expression.collectSchemaObjects(vContext);
   }
+
+  @Override
+  protected long getModificationCount() {
+    return _expression.getModificationCount();
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException {
@@ -50,6 +50,11 @@ public class NotCondition extends Condition
   protected void collectSchemaObjects(ValidationContext vContext) {
     _condition.collectSchemaObjects(vContext);
   }
+
+  @Override
+  protected long getModificationCount() {
+    return _condition.getModificationCount();
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException
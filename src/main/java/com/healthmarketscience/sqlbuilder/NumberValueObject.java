@@ -24,7 +24,8 @@ import com.healthmarketscience.common.util.AppendableExt;
 
 
 /**
- * Outputs a number literal <code>&lt;value&gt;</code>.
+ * Outputs a number literal <code>&lt;value&gt;</code>, or a <code>?</code>
+ * bind parameter if enabled in the current {@link SqlContext}.
  *
  * @author James Ahlborn
  */
@@ -80,6 +81,12 @@ public class NumberValueObject extends Expression
   
   @Override
   public void appendTo(AppendableExt app) throws IOException {
+    SqlContext context = SqlContext.getContext(app);
+    if(context.getUseBindParameters()) {
+      context.addParameter(_value);
+      app.append("?");
+      return;
+    }
     app.append(_value);
   }
 }
@@ -95,6 +95,11 @@ public class OrderObject extends SqlObject
     _obj.collectSchemaObjects(vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return _obj.getModificationCount();
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
     app.append(_obj).append(_dir);
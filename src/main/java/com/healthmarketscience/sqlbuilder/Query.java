@@ -93,7 +93,13 @@ public abstract class Query<ThisType extends Query<ThisType>>
 
     SqlContext newContext = SqlContext.pushContext(app);
     newContext.setQuery(this);
-    appendTo(app, newContext);
+    try {
+      appendTo(app, newContext);
+    } catch(Throwable t) {
+      // release the frames so that a reused root context stays usable
+      SqlContext.abortContext(app, newContext);
+      throw t;
+    }
     // note, this is not within a finally block because any exceptions from
     // appendTo are expected to be unrecoverable, and we don't want to muddy
     // the water with possible exceptions from popContext
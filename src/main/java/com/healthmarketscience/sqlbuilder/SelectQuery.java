@@ -46,9 +46,9 @@ import com.healthmarketscience.sqlbuilder.dbspec.Table;
  * <p>
  * If Columns are used for any referenced columns, and no complicated joins
  * are required, the table list may be left empty and it will be
- * auto-generated in the append call.  Note, that this is not the most
- * efficient method (as this list will not be cached for the future due to
- * mutability constraints on <code>appendTo</code>).
+ * auto-generated in the append call.  The referenced tables are cached until
+ * the query is next modified (see {@link #getModificationCount}), so
+ * rendering the same query repeatedly only collects them once.
  * <p>
  * Note that this query supports custom SQL syntax, see {@link Hook} for more
  * details.
@@ -122,6 +122,11 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
   private SqlObjectList<SqlObject> _windows = SqlObjectList.create();
   private SqlObject _offset;
   private SqlObject _fetchCount;
+  /** modifications of the offset and fetch values */
+  private long _modCount;
+  /** tables referenced by the columns of this query, cached for the auto
+      generated FROM clause */
+  private ColumnTables _columnTables;
 
   public SelectQuery() {
     this(false);
@@ -464,6 +469,7 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
    * @see "SQL 2008"
    */
   public SelectQuery setOffset(Object offset) {
+    _modCount += getModificationCount(_offset) + 1L;
     _offset = Converter.toValueSqlObject(offset);
     return this;
   }
@@ -477,6 +483,7 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
    * @see "SQL 2008"
    */
   public SelectQuery setFetchNext(Object fetchCount) {
+    _modCount += getModificationCount(_fetchCount) + 1L;
     _fetchCount = Converter.toValueSqlObject(fetchCount);
     return this;
   }
@@ -526,6 +533,20 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
     }
   }
 
+  @Override
+  protected long getModificationCount() {
+    return (super.getModificationCount() + _modCount +
+            _joins.getModificationCount() +
+            _columns.getModificationCount() +
+            _condition.getModificationCount() +
+            _grouping.getModificationCount() +
+            _ordering.getModificationCount() +
+            _having.getModificationCount() +
+            _windows.getModificationCount() +
+            getModificationCount(_offset) +
+            getModificationCount(_fetchCount));
+  }
+
   @Override
   public void validate(ValidationContext vContext)
     throws ValidationException
@@ -680,9 +701,15 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
     // append "where" condition(s)
     maybeAppendTo(app, Hook.WHERE, " WHERE ", _condition, !_condition.isEmpty());
 
+    // grouping and ordering may reference columns by index, which must stay
+    // literal even when values are output as bind parameters
+    boolean useBindParameters = newContext.getUseBindParameters();
+
     // append grouping clause
     boolean hasGroupings = !_grouping.isEmpty();
+    newContext.setUseBindParameters(false);
     maybeAppendTo(app, Hook.GROUP_BY, " GROUP BY ", _grouping, hasGroupings);
+    newContext.setUseBindParameters(useBindParameters);
     if(hasGroupings) {
       // append having clause (which is considered a sub-clause of the GROUP
       // BY clause)
@@ -693,8 +720,10 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
     maybeAppendTo(app, Hook.WINDOW, " WINDOW ", _windows, !_windows.isEmpty());
 
     // append ordering clause
+    newContext.setUseBindParameters(false);
     maybeAppendTo(app, Hook.ORDER_BY, " ORDER BY ", _ordering,
                   !_ordering.isEmpty());
+    newContext.setUseBindParameters(useBindParameters);
 
     if(_offset != null) {
       app.append(" OFFSET ").append(_offset).append(" ROWS");
@@ -710,51 +739,71 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
 
   private SqlObjectList<SqlObject> buildJoins(SqlContext newContext) {
 
-    // auto generate the join tables from all the referenced columns
-    SqlObjectList<SqlObject> joins = SqlObjectList.create();
+    ColumnTables columnTables = getColumnTables();
+
+    if(newContext.getParent() == null) {
+      // top-level query, the joins are simply all the column tables
+      return columnTables._joins;
+    }
 
-    // note, we don't cache this collection because we don't want the
-    // appendTo() method to mutate object state.
-    // note, we use LinkedHashSet to preserve the order that the tables were
-    // referenced (for lack of a better choice of ordering)
-    ValidationContext tmpVContext = new ValidationContext(
-        null, new LinkedHashSet<Column>());
-    collectSchemaObjects(tmpVContext);
-
-    if(tmpVContext.getColumns().isEmpty()) {
-      // this is some sort of "constant" select, no columns/tables
-      return joins;
-    }
-
-    Collection<Table> columnTables = tmpVContext.getColumnTables(
-        new LinkedHashSet<Table>());
-
-    if(newContext.getParent() != null) {
-
-      // this query is nested.  some of the column refs may be from tables
-      // in the outer queries.  note, we do "local only" collection as we
-      // are going up the nesting chain and do not need to descend past the
-      // relevant local context
-      ValidationContext outerVContext = new ValidationContext(true);
-      SqlContext tmpContext = newContext;
-      while((tmpContext = tmpContext.getParent()) != null) {
-        Query<?> parentQuery = tmpContext.getQuery();
-        if(parentQuery != null) {
-          parentQuery.collectSchemaObjects(outerVContext);
+    // this query is nested.  some of the column refs may be from tables in
+    // the outer queries.  note, we do "local only" collection as we are going
+    // up the nesting chain and do not need to descend past the relevant local
+    // context
+    Collection<Table> outerTables = new HashSet<Table>();
+    ValidationContext outerVContext = null;
+    SqlContext tmpContext = newContext;
+    while((tmpContext = tmpContext.getParent()) != null) {
+      Query<?> parentQuery = tmpContext.getQuery();
+      if(parentQuery instanceof SelectQuery) {
+        outerTables.addAll(((SelectQuery)parentQuery).getColumnTables()._tables);
+      } else if(parentQuery != null) {
+        if(outerVContext == null) {
+          outerVContext = new ValidationContext(true);
         }
+        parentQuery.collectSchemaObjects(outerVContext);
       }
-
-      // remove any outer tables from the columnTables collection
-      columnTables.removeAll(outerVContext.getColumnTables());
+    }
+    if(outerVContext != null) {
+      outerVContext.getColumnTables(outerTables);
     }
 
-    for(Table table : columnTables) {
-      joins.addObject(Converter.toTableDefSqlObject(table));
+    // skip any outer tables
+    SqlObjectList<SqlObject> joins = SqlObjectList.create();
+    for(int i = 0; i < columnTables._tables.size(); ++i) {
+      if(!outerTables.contains(columnTables._tables.get(i))) {
+        joins.addObject(columnTables._joins.get(i));
+      }
     }
 
     return joins;
   }
 
+  /**
+   * Returns the tables referenced by the columns of this query (in the order
+   * they were referenced), recomputing them only if this query has been
+   * modified since they were last collected.
+   */
+  private ColumnTables getColumnTables() {
+    long modCount = getModificationCount();
+    ColumnTables columnTables = _columnTables;
+    if((columnTables == null) || (columnTables._modCount != modCount)) {
+      // note, we use LinkedHashSet to preserve the order that the tables
+      // were referenced (for lack of a better choice of ordering).  the
+      // columns of nested queries do not affect this query, so the
+      // collection is "local only"
+      ValidationContext tmpVContext = new ValidationContext(
+          null, null, new LinkedHashSet<Column>(), true);
+      collectSchemaObjects(tmpVContext);
+      columnTables = new ColumnTables(
+          modCount, tmpVContext.getColumnTables(new LinkedHashSet<Table>()));
+      // the cached instance is immutable, so concurrent renders of an
+      // unchanged query may safely share (or race to replace) it
+      _columnTables = columnTables;
+    }
+    return columnTables;
+  }
+
   /**
    * Returns <code>true</code> iff the given column list contains some sort of
    * "*" syntax as a column placeholder.
@@ -823,6 +872,11 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
       }
     }
 
+    @Override
+    protected long getModificationCount() {
+      return getModificationCount(_onCondition);
+    }
+
     @Override
     public void appendTo(AppendableExt app) throws IOException {
       if(_joinType != null) {
@@ -855,9 +909,33 @@ public class SelectQuery extends BaseCTEQuery<SelectQuery> implements Where
       _definition.collectSchemaObjects(vContext);
     }
 
+    @Override
+    protected long getModificationCount() {
+      return _definition.getModificationCount();
+    }
+
     @Override
     public void appendTo(AppendableExt app) throws IOException {
       app.append(_name).append(" AS ").append(_definition);
     }
   }
+
+  /**
+   * The tables referenced by the columns of a query and the corresponding
+   * FROM clause objects, as of the given modification count of the query.
+   */
+  private static final class ColumnTables
+  {
+    private final long _modCount;
+    private final List<Table> _tables;
+    private final SqlObjectList<SqlObject> _joins = SqlObjectList.create();
+
+    private ColumnTables(long modCount, Collection<Table> tables) {
+      _modCount = modCount;
+      _tables = new ArrayList<Table>(tables);
+      for(Table table : _tables) {
+        _joins.addObject(Converter.toTableDefSqlObject(table));
+      }
+    }
+  }
 }
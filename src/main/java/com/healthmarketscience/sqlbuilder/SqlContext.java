@@ -16,6 +16,12 @@ limitations under the License.
 
 package com.healthmarketscience.sqlbuilder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import com.healthmarketscience.common.util.AppendableExt;
 
 /**
@@ -25,31 +31,43 @@ import com.healthmarketscience.common.util.AppendableExt;
  * and {@link com.healthmarketscience.common.util.AppendableExt#getContext} methods.
  * This class enables the various SqlObject SQL generation methods to behave
  * differently depending on where they are being used in a query.
+ * <p>
+ * The contexts of a single SQL generation share one stack of frames:
+ * {@link #pushContext} copies the current settings into the next frame and
+ * {@link #popContext} drops it again, and the SqlContext handle for each
+ * frame is created once and reused for the rest of the generation, so
+ * nesting queries does not allocate.  The {@link #getParent} chain still
+ * reflects the pushed contexts.  A render which starts from a context which is
+ * already rendering (e.g. one root context shared by several threads) gets a
+ * separate frame stack, so a root context may be reused like before.
  *
  * Note, users of the sqlbuilder classes may extend this context to pass
- * through more information as any copying of SqlContexts is done via cloning.
- * The custom context may be introduced to the current SQL generation context
- * via the {@link SqlObject#toString(int,SqlContext)} method call.
+ * through more information as any copying of SqlContexts (of a subclass) is
+ * done via cloning.  The custom context may be introduced to the current SQL
+ * generation context via the {@link SqlObject#toString(int,SqlContext)}
+ * method call.
  *
  * @author James Ahlborn
  */
 public class SqlContext implements Cloneable
 {
+  /** the frame stack shared by all the contexts of this SQL generation */
+  private Frames _frames;
 
-  /** Previous context replaced by this context, if any */
-  private SqlContext _parent;
-
-  /** flag indicating whether or not table aliases should be used in the
-      current SQL generation context */
-  private boolean _useTableAliases = true;
+  /** index of the frame of this context */
+  private int _index;
 
-  /** flag indicating whether constraints apply to a column or a table */
-  private boolean _useTableConstraints = true;
+  /** Previous context replaced by this context if it was cloned (instead of
+      pushed as a frame), if any */
+  private SqlContext _parent;
 
-  /** handle to the immediate wrapping query */
-  private Query<?> _query;
-  
   public SqlContext() {
+    _frames = new Frames(this);
+  }
+
+  private SqlContext(Frames frames, int index) {
+    _frames = frames;
+    _index = index;
   }
 
   /**
@@ -57,7 +75,8 @@ public class SqlContext implements Cloneable
    * "pushed" onto the context stack.
    */
   public SqlContext getParent() {
-    return _parent;
+    int parentIndex = _frames._parents[_index];
+    return ((parentIndex >= 0) ? _frames._handles[parentIndex] : _parent);
   }
 
   /**
@@ -73,7 +92,7 @@ public class SqlContext implements Cloneable
    *         in the current SQL generation context.
    */
   public boolean getUseTableAliases() {
-    return _useTableAliases;
+    return _frames._useTableAliases[_index];
   }
 
   /**
@@ -81,7 +100,7 @@ public class SqlContext implements Cloneable
    * current SQL generation context.
    */
   public void setUseTableAliases(boolean newUseTableAliases) {
-    _useTableAliases = newUseTableAliases;
+    _frames._useTableAliases[_index] = newUseTableAliases;
   }
 
   /**
@@ -89,7 +108,7 @@ public class SqlContext implements Cloneable
    *         used in the current SQL generation context.
    */
   public boolean getUseTableConstraints() {
-    return _useTableConstraints;
+    return _frames._useTableConstraints[_index];
   }
 
   /**
@@ -97,27 +116,81 @@ public class SqlContext implements Cloneable
    * the current SQL generation context.
    */
   public void setUseTableConstraints(boolean newUseTableConstraints) {
-    _useTableConstraints = newUseTableConstraints;
+    _frames._useTableConstraints[_index] = newUseTableConstraints;
   }
 
   /**
    * Gets the handle to the immediate wrapping query
    */
   public Query<?> getQuery() {
-    return _query;
+    return _frames._queries[_index];
   }
 
   /**
    * Sets the handle to the immediate wrapping query
    */
   public void setQuery(Query<?> newQuery) {
-    _query = newQuery;
+    _frames._queries[_index] = newQuery;
+  }
+
+  /**
+   * @return the flag indicating whether or not literal values should be
+   *         output as <code>?</code> bind parameters in the current SQL
+   *         generation context.
+   */
+  public boolean getUseBindParameters() {
+    return _frames._useBindParameters[_index];
+  }
+
+  /**
+   * Sets flag indicating whether or not literal values should be output as
+   * <code>?</code> bind parameters in the current SQL generation context.
+   * When enabled, the {@link ValueObject}, {@link NumberValueObject},
+   * {@link CollectionValueObject} and {@link JdbcEscape} values add
+   * themselves to the {@link #getParameters} list in the order in which they
+   * are appended.  Note, this mode is intended for DML generation, any
+   * existing {@link QueryPreparer} placeholders in the same query will not
+   * have matching indexes.
+   */
+  public void setUseBindParameters(boolean newUseBindParameters) {
+    _frames._useBindParameters[_index] = newUseBindParameters;
+    if(newUseBindParameters && (_frames._parameters == null)) {
+      _frames._parameters = new ArrayList<Object>();
+    }
+  }
+
+  /**
+   * @return the bind parameter values collected so far in the SQL
+   *         generation, in the order of their <code>?</code> placeholders
+   */
+  public List<Object> getParameters() {
+    return ((_frames._parameters != null) ? _frames._parameters :
+            Collections.<Object>emptyList());
+  }
+
+  /**
+   * Adds the given value to the ordered bind parameter list.  Should only be
+   * called when {@link #getUseBindParameters} is {@code true}.
+   */
+  public void addParameter(Object value) {
+    if(_frames._parameters == null) {
+      throw new IllegalStateException("Bind parameters are not enabled");
+    }
+    _frames._parameters.add(value);
   }
-  
+
+  /**
+   * Returns a standalone copy of this context with the current settings and
+   * the same parent (the bind parameter list is shared, not copied).
+   */
   @Override
   public SqlContext clone() {
     try {
-      return (SqlContext)super.clone();
+      SqlContext context = (SqlContext)super.clone();
+      context._parent = getParent();
+      context._index = 0;
+      context._frames = new Frames(context, _frames, _index);
+      return context;
     } catch(CloneNotSupportedException e) {
       throw new RuntimeException("should never get here", e);
     }
@@ -139,20 +212,23 @@ public class SqlContext implements Cloneable
   }
 
   /**
-   * Creates a new SqlContext (cloning current one if available), replaces the
-   * current SqlContext with the new SqlContext, and returns the new
+   * Creates a new SqlContext (copying the current one if available), replaces
+   * the current SqlContext with the new SqlContext, and returns the new
    * SqlContext.  All <code>pushContext</code> calls should have a
-   * corresponding {@link #popContext} call.
+   * corresponding {@link #popContext} call.  A plain SqlContext is copied
+   * into the next frame of its frame stack, a subclass is cloned.
    */
   public static final SqlContext pushContext(AppendableExt app)
   {
     SqlContext parentContext = (SqlContext)app.getContext();
     SqlContext context = null;
-    if(parentContext != null) {
+    if(parentContext == null) {
+      context = new SqlContext();
+    } else if(parentContext.getClass() == SqlContext.class) {
+      context = parentContext._frames.push(parentContext);
+    } else {
       context = parentContext.clone();
       context.setParent(parentContext);
-    } else {
-      context = new SqlContext();
     }
     app.setContext(context);
     return context;
@@ -169,8 +245,137 @@ public class SqlContext implements Cloneable
     if(app.getContext() != context) {
       throw new IllegalStateException("Mismatched push/pop SqlContext");
     }
-    app.setContext((context != null) ? context.getParent() : null);
+    if(context == null) {
+      app.setContext(null);
+      return;
+    }
+    if(context._frames._parents[context._index] >= 0) {
+      context._frames.pop(context._index);
+    }
+    app.setContext(context.getParent());
+  }
+
+  /**
+   * Cleans up after a SQL generation which failed between
+   * {@link #pushContext} and {@link #popContext}.  When the given context was
+   * pushed from the root frame, the frames pushed since are dropped and the
+   * root context is released, so that a reused root context does not stay
+   * marked as rendering.  Nested contexts leave this to the outermost one.
+   */
+  public static void abortContext(AppendableExt app, SqlContext context)
+  {
+    if((context != null) && (context._frames._parents[context._index] == 0)) {
+      context._frames.reset();
+      app.setContext(context.getParent());
+    }
   }
 
-  
+  /**
+   * Stack of context settings, one frame per pushed context.  Each frame
+   * records the index of the frame it was pushed from, which is not always
+   * the frame below it (e.g. a common table expression renders its query
+   * within the parent context).
+   */
+  private static final class Frames
+  {
+    private static final int INITIAL_DEPTH = 8;
+    private static final AtomicIntegerFieldUpdater<Frames> RENDERING =
+      AtomicIntegerFieldUpdater.newUpdater(Frames.class, "_rendering");
+
+    private SqlContext[] _handles;
+    private int[] _parents;
+    private boolean[] _useTableAliases;
+    private boolean[] _useTableConstraints;
+    private boolean[] _useBindParameters;
+    private Query<?>[] _queries;
+    /** ordered bind parameter values collected during the SQL generation,
+        shared by all frames (and cloned contexts) */
+    private List<Object> _parameters;
+    /** index of the last pushed frame */
+    private int _top;
+    /** 1 while a render started from the root frame owns the frames above
+        it */
+    private volatile int _rendering;
+
+    private Frames(SqlContext root) {
+      this(root, 1);
+      _useTableAliases[0] = true;
+      _useTableConstraints[0] = true;
+    }
+
+    /** Creates a single frame copy of the given frame. */
+    private Frames(SqlContext root, Frames other, int index) {
+      this(root, 1);
+      copyFrame(other, index, 0);
+      _parameters = other._parameters;
+    }
+
+    private Frames(SqlContext root, int depth) {
+      _handles = new SqlContext[Math.max(depth, INITIAL_DEPTH)];
+      _parents = new int[_handles.length];
+      _useTableAliases = new boolean[_handles.length];
+      _useTableConstraints = new boolean[_handles.length];
+      _useBindParameters = new boolean[_handles.length];
+      _queries = new Query<?>[_handles.length];
+      _handles[0] = root;
+      _parents[0] = -1;
+    }
+
+    private SqlContext push(SqlContext parent) {
+      if((parent._index == 0) && !RENDERING.compareAndSet(this, 0, 1)) {
+        // the root context is already rendering (in another thread or an
+        // enclosing render), so this render gets its own frames
+        return new Frames(parent, this, 0).push(0);
+      }
+      return push(parent._index);
+    }
+
+    private SqlContext push(int parentIndex) {
+      int index = ++_top;
+      if(index == _handles.length) {
+        grow();
+      }
+      copyFrame(this, parentIndex, index);
+      _parents[index] = parentIndex;
+      SqlContext context = _handles[index];
+      if(context == null) {
+        context = new SqlContext(this, index);
+        _handles[index] = context;
+      }
+      return context;
+    }
+
+    private void pop(int index) {
+      if(index != _top) {
+        throw new IllegalStateException("Mismatched push/pop SqlContext");
+      }
+      _queries[index] = null;
+      if(--_top == 0) {
+        RENDERING.set(this, 0);
+      }
+    }
+
+    private void reset() {
+      Arrays.fill(_queries, 1, _top + 1, null);
+      _top = 0;
+      RENDERING.set(this, 0);
+    }
+
+    private void copyFrame(Frames from, int fromIndex, int toIndex) {
+      _useTableAliases[toIndex] = from._useTableAliases[fromIndex];
+      _useTableConstraints[toIndex] = from._useTableConstraints[fromIndex];
+      _useBindParameters[toIndex] = from._useBindParameters[fromIndex];
+      _queries[toIndex] = from._queries[fromIndex];
+    }
+
+    private void grow() {
+      int depth = _handles.length << 1;
+      _handles = Arrays.copyOf(_handles, depth);
+      _parents = Arrays.copyOf(_parents, depth);
+      _useTableAliases = Arrays.copyOf(_useTableAliases, depth);
+      _useTableConstraints = Arrays.copyOf(_useTableConstraints, depth);
+      _useBindParameters = Arrays.copyOf(_useBindParameters, depth);
+      _queries = Arrays.copyOf(_queries, depth);
+    }
+  }
 }
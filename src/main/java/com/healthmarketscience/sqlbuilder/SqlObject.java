@@ -20,7 +20,7 @@ import java.io.IOException;
 
 import com.healthmarketscience.common.util.AppendableExt;
 import com.healthmarketscience.common.util.AppendeeObject;
-import com.healthmarketscience.common.util.StringAppendableExt;
+import com.healthmarketscience.common.util.RenderBuffers;
 
 
 
@@ -82,9 +82,19 @@ public abstract class SqlObject extends AppendeeObject
    * @return the generated SQL query
    */
   public String toString(int size, SqlContext context) {
-    StringAppendableExt app = new StringAppendableExt(size);
-    app.setContext(context);
-    return app.append(this).toString();
+    return RenderBuffers.toString(this, size, context);
+  }
+
+  /**
+   * Writes the SQL for this object directly to the given Appendable (e.g. a
+   * {@link java.io.Writer}) using the given SqlContext, without building an
+   * intermediate String.  Useful for very large statements.
+   * @param out destination of the generated SQL
+   * @param context optional custom SqlContext for the SQL generation
+   * @throws IOException if the Appendable fails
+   */
+  public void writeTo(Appendable out, SqlContext context) throws IOException {
+    RenderBuffers.write(this, out, context);
   }
 
   /**
@@ -114,6 +124,30 @@ public abstract class SqlObject extends AppendeeObject
     }
   }
 
+  /**
+   * Utility method for classes which may not be in this package to invoke
+   * {@link #getModificationCount()} on a SqlObject.
+   * @param obj relevant sql object, may be {@code null}
+   * @return the modification count of the given object, 0 if {@code null}
+   */
+  public static long getModificationCount(SqlObject obj) {
+    return ((obj != null) ? obj.getModificationCount() : 0L);
+  }
+
+  /**
+   * Returns the number of structural modifications made to this object and
+   * the objects it contains (not including nested queries, which do not
+   * contribute to this object's {@link #collectSchemaObjects schema
+   * objects}).  The count never decreases, so anything derived from the
+   * schema objects of this object remains valid as long as the count is
+   * unchanged.  Any subclass which can be modified or which contains other
+   * objects should override this method.
+   * @return the current modification count, 0 for immutable leaf objects
+   */
+  protected long getModificationCount() {
+    return 0L;
+  }
+
   /**
    * Used during Query.validate() calls to collect the dbschema objects
    * referenced in a query.  Any subclass of this class should add all
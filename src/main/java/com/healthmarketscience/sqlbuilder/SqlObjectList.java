@@ -52,6 +52,9 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
 
   private final String _delimiter;
   private final List<ObjType> _objects;
+  /** structural modifications of this list, including the modification
+      counts of any removed objects so that the total never decreases */
+  private long _modCount;
 
   public SqlObjectList() {
     this(DEFAULT_DELIMITER, new ArrayList<ObjType>(4));
@@ -104,7 +107,10 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
   /**
    * Removes all objects from the list.
    */
-  public void clear() { _objects.clear(); }
+  public void clear() {
+    _modCount += getModificationCount() + 1L;
+    _objects.clear();
+  }
 
   /**
    * Returns the object at the specified index.
@@ -115,13 +121,13 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
    * @return a mutable Iterator over the objects in the list
    */
   @Override
-  public Iterator<ObjType> iterator() { return _objects.iterator(); }
+  public Iterator<ObjType> iterator() { return listIterator(); }
 
   /**
    * @return a mutable ListIterator over the objects in the list
    */
   public ListIterator<ObjType> listIterator() {
-    return _objects.listIterator();
+    return new ModCountingIterator(_objects.listIterator());
   }
 
   /**
@@ -130,6 +136,7 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
    */
   public SqlObjectList<ObjType> addObject(ObjType obj) {
     _objects.add(obj);
+    ++_modCount;
     return this;
   }
 
@@ -145,6 +152,7 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
     for(ObjType obj : objs) {
       _objects.add(obj);
     }
+    ++_modCount;
     return this;
   }
 
@@ -159,6 +167,7 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
     for(ObjType obj : objs) {
       _objects.add(obj);
     }
+    ++_modCount;
     return this;
   }
 
@@ -179,6 +188,7 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
     for(SrcType obj : objs) {
       _objects.add(converter.convert(obj));
     }
+    ++_modCount;
     return this;
   }
 
@@ -199,6 +209,7 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
     for(SrcType obj : objs) {
       _objects.add(converter.convert(obj));
     }
+    ++_modCount;
     return this;
   }
 
@@ -209,9 +220,72 @@ public class SqlObjectList<ObjType extends SqlObject> extends SqlObject
     }
   }
 
+  @Override
+  protected long getModificationCount() {
+    long modCount = _modCount;
+    for(ObjType obj : _objects) {
+      modCount += obj.getModificationCount();
+    }
+    return modCount;
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException
   {
-    app.append(this, _delimiter);
+    app.append(_objects, _delimiter);
+  }
+
+  /**
+   * ListIterator which counts the modifications made through it.  A removed
+   * or replaced object takes its modification count with it, so that count
+   * is added to the list's own count.
+   */
+  private final class ModCountingIterator implements ListIterator<ObjType>
+  {
+    private final ListIterator<ObjType> _delegate;
+    private ObjType _last;
+
+    private ModCountingIterator(ListIterator<ObjType> delegate) {
+      _delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() { return _delegate.hasNext(); }
+
+    @Override
+    public ObjType next() { return (_last = _delegate.next()); }
+
+    @Override
+    public boolean hasPrevious() { return _delegate.hasPrevious(); }
+
+    @Override
+    public ObjType previous() { return (_last = _delegate.previous()); }
+
+    @Override
+    public int nextIndex() { return _delegate.nextIndex(); }
+
+    @Override
+    public int previousIndex() { return _delegate.previousIndex(); }
+
+    @Override
+    public void remove() {
+      _delegate.remove();
+      _modCount += getModificationCount(_last) + 1L;
+      _last = null;
+    }
+
+    @Override
+    public void set(ObjType obj) {
+      _delegate.set(obj);
+      _modCount += getModificationCount(_last) + 1L;
+      _last = obj;
+    }
+
+    @Override
+    public void add(ObjType obj) {
+      _delegate.add(obj);
+      ++_modCount;
+      _last = null;
+    }
   }
 }
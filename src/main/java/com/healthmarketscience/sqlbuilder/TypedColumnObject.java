@@ -123,7 +123,12 @@ class TypedColumnObject extends ColumnObject
       // generate constraint clauses in their "column" format
       context.setUseTableConstraints(false);
 
-      app.append(" ").append(_constraints);
+      try {
+        app.append(" ").append(_constraints);
+      } catch(Throwable t) {
+        SqlContext.abortContext(app, context);
+        throw t;
+      }
 
       SqlContext.popContext(app, context);
     }
@@ -120,6 +120,11 @@ public class UnaryCondition extends Condition
   protected void collectSchemaObjects(ValidationContext vContext) {
     _value.collectSchemaObjects(vContext);
   }
+
+  @Override
+  protected long getModificationCount() {
+    return _value.getModificationCount();
+  }
     
   @Override
   public void appendTo(AppendableExt app) throws IOException
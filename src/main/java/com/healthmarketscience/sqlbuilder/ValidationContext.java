@@ -140,6 +140,30 @@ public class ValidationContext {
     }
   }
 
+  /**
+   * Retrieves all tables referenced by the given object, including the tables
+   * of any nested queries and the tables of the referenced columns.  Tables
+   * named only within custom SQL strings are not found.
+   *
+   * @param obj the object from which to collect the tables
+   * @return a new collection of the referenced tables
+   */
+  public static Collection<Table> collectAllTables(SqlObject obj)
+  {
+    ValidationContext vContext = new ValidationContext() {
+      @Override
+      public void collectNestedQuerySchemaObjects(SqlObject nestedQuery) {
+        // nested queries collect into this context so that their tables are
+        // included in the result
+        if(nestedQuery != null) {
+          nestedQuery.collectSchemaObjects(this);
+        }
+      }
+    };
+    obj.collectSchemaObjects(vContext);
+    return vContext.getColumnTables(new HashSet<Table>(vContext.getTables()));
+  }
+
   /**
    * Retrieves the tables referenced by the column objects.
    *
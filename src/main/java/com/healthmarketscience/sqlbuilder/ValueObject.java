@@ -17,23 +17,60 @@ limitations under the License.
 package com.healthmarketscience.sqlbuilder;
 
 import java.io.IOException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.UUID;
 
 import com.healthmarketscience.common.util.AppendableExt;
 
 
 /**
- * Outputs a quoted value <code>"'&lt;value&gt;'"</code>.
+ * Outputs a quoted value <code>"'&lt;value&gt;'"</code>, or a
+ * <code>?</code> bind parameter if enabled in the current {@link SqlContext}.
  *
  * @author James Ahlborn
  */
 public class ValueObject extends Expression
 {
   private Object _value;
+  /** whether the value is bound as is, see {@link #parameter} */
+  private boolean _bindAsIs;
 
   public ValueObject(Object value) {
     _value = value;
   }
 
+  /**
+   * @return a ValueObject whose value is always bound as is in bind parameter
+   *         mode (e.g. a driver specific typed array)
+   */
+  public static ValueObject parameter(Object value) {
+    ValueObject obj = new ValueObject(value);
+    obj._bindAsIs = true;
+    return obj;
+  }
+
+  /**
+   * Converts a value to the bind parameter which matches its literal output.
+   * Values which JDBC drivers bind directly (Strings, Numbers, Booleans,
+   * dates, byte arrays, UUIDs, LOBs and SQL arrays) are returned as is, any
+   * other value (e.g. an enum or a Character) is bound as its String form,
+   * like the quoted literal.
+   */
+  public static Object toParameter(Object value) {
+    if((value == null) || (value instanceof String) ||
+       (value instanceof Number) || (value instanceof Boolean) ||
+       (value instanceof Date) || (value instanceof Temporal) ||
+       (value instanceof byte[]) || (value instanceof UUID) ||
+       (value instanceof Blob) || (value instanceof Clob) ||
+       (value instanceof java.sql.Array)) {
+      return value;
+    }
+    return String.valueOf(value);
+  }
+
   @Override
   public boolean hasParens() { return false; }
 
@@ -43,6 +80,12 @@ public class ValueObject extends Expression
   
   @Override
   public void appendTo(AppendableExt app) throws IOException {
+    SqlContext context = SqlContext.getContext(app);
+    if(context.getUseBindParameters()) {
+      context.addParameter(_bindAsIs ? _value : toParameter(_value));
+      app.append("?");
+      return;
+    }
     app.append("'").append(_value).append("'");
   }
 }
@@ -68,6 +68,8 @@ public class WindowDefinitionClause extends SqlObject
   private SqlObject _frameStart;
   private SqlObject _frameEnd;
   private Object _frameExclusion;
+  /** modifications of the frame clause */
+  private long _modCount;
 
   public WindowDefinitionClause() {
   }
@@ -171,6 +173,8 @@ public class WindowDefinitionClause extends SqlObject
       Object frameUnits, Object frameStart, Object frameEnd,
       Object frameExclusion)
   {
+    _modCount += (getModificationCount(_frameStart) +
+                  getModificationCount(_frameEnd) + 1L);
     _frameUnits = frameUnits;
     _frameStart = Converter.toCustomSqlObject(frameStart);
     if(frameEnd != null) {
@@ -188,6 +192,14 @@ public class WindowDefinitionClause extends SqlObject
     collectSchemaObjects(_frameEnd, vContext);
   }
 
+  @Override
+  protected long getModificationCount() {
+    return (_modCount + _columns.getModificationCount() +
+            _ordering.getModificationCount() +
+            getModificationCount(_frameStart) +
+            getModificationCount(_frameEnd));
+  }
+
   @Override
   public void appendTo(AppendableExt app) throws IOException {
 
@@ -18,6 +18,8 @@ package com.healthmarketscience.sqlbuilder.custom;
 
 import com.healthmarketscience.sqlbuilder.CreateIndexQuery;
 import com.healthmarketscience.sqlbuilder.CreateTableQuery;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.MergeQuery;
 import com.healthmarketscience.sqlbuilder.SelectQuery;
 import com.healthmarketscience.sqlbuilder.SqlObject;
 
@@ -58,4 +60,20 @@ public abstract class CustomSyntax extends SqlObject
   public void apply(CreateIndexQuery query) {
     throw new UnsupportedOperationException();
   }
+
+  /**
+   * Called by {@link InsertQuery#addCustomization(CustomSyntax)} to add this
+   * custom syntax to the appropriate location in the InsertQuery.
+   */
+  public void apply(InsertQuery query) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Called by {@link MergeQuery#addCustomization(CustomSyntax)} to add this
+   * custom syntax to the appropriate location in the MergeQuery.
+   */
+  public void apply(MergeQuery query) {
+    throw new UnsupportedOperationException();
+  }
 }
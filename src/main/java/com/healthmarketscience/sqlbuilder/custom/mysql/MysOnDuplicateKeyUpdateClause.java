@@ -0,0 +1,50 @@
+package com.healthmarketscience.sqlbuilder.custom.mysql;
+
+import java.io.IOException;
+
+import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.SqlObjectList;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
+import com.healthmarketscience.sqlbuilder.dbspec.Column;
+
+
+/**
+ * Appends a MySQL upsert clause like
+ * {@code " ON DUPLICATE KEY UPDATE <col> = VALUES(<col>),..."} for use in
+ * {@link InsertQuery}s.  Works for single and multi-row inserts.
+ *
+ * @see InsertQuery#addCustomization(CustomSyntax)
+ */
+public class MysOnDuplicateKeyUpdateClause extends CustomSyntax
+{
+  private final Column[] _columns;
+
+  /** @param columns the columns to update from the inserted values when the
+                     row already exists */
+  public MysOnDuplicateKeyUpdateClause(Column... columns) {
+    _columns = columns;
+  }
+
+  @Override
+  public void apply(InsertQuery query) {
+    query.addCustomization(InsertQuery.Hook.TRAILER, HookType.BEFORE, this);
+  }
+
+  @Override
+  public void appendTo(AppendableExt app) throws IOException {
+    app.append(" ON DUPLICATE KEY UPDATE ");
+    for(int i = 0; i < _columns.length; ++i) {
+      if(i > 0) {
+        app.append(SqlObjectList.DEFAULT_DELIMITER);
+      }
+      String name = _columns[i].getColumnNameSQL();
+      app.append(name).append(" = VALUES(").append(name).append(")");
+    }
+  }
+
+  @Override
+  protected void collectSchemaObjects(ValidationContext vContext) {}
+}
@@ -0,0 +1,34 @@
+package com.healthmarketscience.sqlbuilder.custom.oracle;
+
+import java.io.IOException;
+
+import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.MergeQuery;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
+
+
+/**
+ * Renders the source row of a {@link MergeQuery} as a select from
+ * {@code DUAL}, since Oracle supports neither table value constructors nor a
+ * select without a table.
+ *
+ * @see MergeQuery#addCustomization(CustomSyntax)
+ */
+public class OraFromDualClause extends CustomSyntax
+{
+  @Override
+  public void apply(MergeQuery query) {
+    query.setSelectSource(true);
+    query.addCustomization(MergeQuery.Hook.SOURCE, HookType.BEFORE, this);
+  }
+
+  @Override
+  public void appendTo(AppendableExt app) throws IOException {
+    app.append(" FROM DUAL");
+  }
+
+  @Override
+  protected void collectSchemaObjects(ValidationContext vContext) {}
+}
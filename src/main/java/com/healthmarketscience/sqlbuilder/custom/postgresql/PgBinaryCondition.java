@@ -16,8 +16,14 @@ limitations under the License.
 
 package com.healthmarketscience.sqlbuilder.custom.postgresql;
 
+import java.io.IOException;
+
+import com.healthmarketscience.common.util.AppendableExt;
 import com.healthmarketscience.sqlbuilder.BinaryCondition;
 import com.healthmarketscience.sqlbuilder.Converter;
+import com.healthmarketscience.sqlbuilder.Expression;
+import com.healthmarketscience.sqlbuilder.SqlObject;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
 
 /**
  * Condition which supports PostgreSQL specific binary operators.
@@ -35,7 +41,8 @@ public class PgBinaryCondition extends BinaryCondition
     MATCHES_RE(" ~ "),
     NOT_MATCHES_RE(" !~ "),
     IMATCHES_RE(" ~* "),
-    NOT_IMATCHES_RE(" !~* ");
+    NOT_IMATCHES_RE(" !~* "),
+    EQUAL_TO_ANY(" = ANY ");
 
     private final String _opStr;
 
@@ -147,5 +154,52 @@ public class PgBinaryCondition extends BinaryCondition
   public static PgBinaryCondition notIMatchesRe(Object value1, Object value2) {
     return new PgBinaryCondition(PgOp.NOT_IMATCHES_RE, value1, value2);
   }
-    
+
+  /**
+   * Convenience method for generating a Condition for testing if a column is
+   * equal to any element of an array value, like
+   * <code>"&lt;value1&gt; = ANY (&lt;arrayValue&gt;)"</code>.  When the
+   * array is bound as a single parameter, the SQL is the same for any number
+   * of elements (unlike a long IN list).
+   * <p>
+   * {@code Object} -&gt; {@code SqlObject} conversions handled by
+   * {@link Converter#toColumnSqlObject(Object)} and
+   * {@link Converter#toValueSqlObject(Object)} respectively.
+   */
+  public static PgBinaryCondition equalToAny(Object value1, Object arrayValue) {
+    return new PgBinaryCondition(
+        PgOp.EQUAL_TO_ANY, value1,
+        new ArrayExpression(Converter.toValueSqlObject(arrayValue)));
+  }
+
+  /**
+   * Outputs an array value within the parens required by ANY.
+   */
+  private static final class ArrayExpression extends Expression
+  {
+    private final SqlObject _array;
+
+    private ArrayExpression(SqlObject array) {
+      _array = array;
+    }
+
+    @Override
+    public boolean hasParens() { return true; }
+
+    @Override
+    protected void collectSchemaObjects(ValidationContext vContext) {
+      collectSchemaObjects(_array, vContext);
+    }
+
+    @Override
+    protected long getModificationCount() {
+      return getModificationCount(_array);
+    }
+
+    @Override
+    public void appendTo(AppendableExt app) throws IOException {
+      app.append("(").append(_array).append(")");
+    }
+  }
+
 }
@@ -0,0 +1,72 @@
+package com.healthmarketscience.sqlbuilder.custom.postgresql;
+
+import java.io.IOException;
+
+import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.SqlObjectList;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
+import com.healthmarketscience.sqlbuilder.dbspec.Column;
+
+
+/**
+ * Appends a PostgreSQL upsert clause like
+ * {@code " ON CONFLICT (<key>,...) DO UPDATE SET <col> = EXCLUDED.<col>,..."}
+ * (or {@code " DO NOTHING"} if there are no update columns) for use in
+ * {@link InsertQuery}s.
+ *
+ * @see InsertQuery#addCustomization(CustomSyntax)
+ */
+public class PgOnConflictClause extends CustomSyntax
+{
+  private final Column[] _conflictColumns;
+  private Column[] _updateColumns = new Column[0];
+
+  /** @param conflictColumns the columns of the unique constraint which
+                             detects an existing row */
+  public PgOnConflictClause(Column... conflictColumns) {
+    _conflictColumns = conflictColumns;
+  }
+
+  /** Sets the columns to update from the inserted values when the row
+      already exists. */
+  public PgOnConflictClause setUpdateColumns(Column... updateColumns) {
+    _updateColumns = updateColumns;
+    return this;
+  }
+
+  @Override
+  public void apply(InsertQuery query) {
+    query.addCustomization(InsertQuery.Hook.TRAILER, HookType.BEFORE, this);
+  }
+
+  @Override
+  public void appendTo(AppendableExt app) throws IOException {
+    app.append(" ON CONFLICT (");
+    for(int i = 0; i < _conflictColumns.length; ++i) {
+      if(i > 0) {
+        app.append(SqlObjectList.DEFAULT_DELIMITER);
+      }
+      app.append(_conflictColumns[i].getColumnNameSQL());
+    }
+    app.append(")");
+
+    if(_updateColumns.length == 0) {
+      app.append(" DO NOTHING");
+      return;
+    }
+    app.append(" DO UPDATE SET ");
+    for(int i = 0; i < _updateColumns.length; ++i) {
+      if(i > 0) {
+        app.append(SqlObjectList.DEFAULT_DELIMITER);
+      }
+      String name = _updateColumns[i].getColumnNameSQL();
+      app.append(name).append(" = EXCLUDED.").append(name);
+    }
+  }
+
+  @Override
+  protected void collectSchemaObjects(ValidationContext vContext) {}
+}
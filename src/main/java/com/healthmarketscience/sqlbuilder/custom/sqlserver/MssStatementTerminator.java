@@ -0,0 +1,32 @@
+package com.healthmarketscience.sqlbuilder.custom.sqlserver;
+
+import java.io.IOException;
+
+import com.healthmarketscience.common.util.AppendableExt;
+import com.healthmarketscience.sqlbuilder.MergeQuery;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
+import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
+import com.healthmarketscience.sqlbuilder.custom.HookType;
+
+
+/**
+ * Appends the {@code ";"} statement terminator which SQL Server requires
+ * after a {@link MergeQuery}.
+ *
+ * @see MergeQuery#addCustomization(CustomSyntax)
+ */
+public class MssStatementTerminator extends CustomSyntax
+{
+  @Override
+  public void apply(MergeQuery query) {
+    query.addCustomization(MergeQuery.Hook.TRAILER, HookType.BEFORE, this);
+  }
+
+  @Override
+  public void appendTo(AppendableExt app) throws IOException {
+    app.append(";");
+  }
+
+  @Override
+  protected void collectSchemaObjects(ValidationContext vContext) {}
+}
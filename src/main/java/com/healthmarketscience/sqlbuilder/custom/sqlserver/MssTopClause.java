@@ -21,6 +21,7 @@ import java.io.IOException;
 import com.healthmarketscience.common.util.AppendableExt;
 import com.healthmarketscience.sqlbuilder.Converter;
 import com.healthmarketscience.sqlbuilder.SelectQuery;
+import com.healthmarketscience.sqlbuilder.SqlContext;
 import com.healthmarketscience.sqlbuilder.SqlObject;
 import com.healthmarketscience.sqlbuilder.ValidationContext;
 import com.healthmarketscience.sqlbuilder.custom.CustomSyntax;
@@ -60,7 +61,12 @@ public class MssTopClause extends CustomSyntax
 
   @Override
   public void appendTo(AppendableExt app) throws IOException {
+    // SQLServer does not accept a bare parameter for TOP, keep it literal
+    SqlContext context = SqlContext.getContext(app);
+    boolean useBindParameters = context.getUseBindParameters();
+    context.setUseBindParameters(false);
     app.append("TOP ").append(_count).append(" ");
+    context.setUseBindParameters(useBindParameters);
     if(_isPercent) {
       app.append("PERCENT ");
     }
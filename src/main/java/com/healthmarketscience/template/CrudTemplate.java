@@ -2,20 +2,48 @@ package com.healthmarketscience.template;
 
 import com.healthmarketscience.wrapper.QueryCondition;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CrudTemplate<T> {
     int insert(T entity);
 
+    int insertBatch(Collection<T> entities, int batchSize);
+
     int deleteById(Object id);
 
+    /**
+     * 按主键批量删除，IN 列表按方言上限分块执行
+     */
+    int deleteByIds(Collection<?> ids);
+
     int delete();
 
     int updateById(T entity);
 
+    /**
+     * 按主键批量更新，更新列相同的实体合并为 JDBC 批次，每批 1000 条
+     */
+    int updateBatchById(Collection<T> entities);
+
+    /**
+     * 按主键批量更新，更新列相同的实体合并为 JDBC 批次，每批最多 batchSize 条
+     */
+    int updateBatchById(Collection<T> entities, int batchSize);
+
     int update();
 
+    /**
+     * 按主键插入或更新，写入全部列（包括 null），单条语句完成；自增主键为空时等同于 insert
+     */
+    int upsert(T entity);
+
+    /**
+     * 批量插入或更新，合并为一个 JDBC 批次；自增主键为空的实体改为批量插入
+     */
+    int upsertBatch(Collection<T> entities);
+
     Optional<T> selectById(Object id);
 
     Optional<List<T>> selectList(QueryCondition... conditions);
@@ -0,0 +1,314 @@
+package com.healthmarketscience.template;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * selectById 的实体缓存，按条数与权重限制容量，按写入后的存活时间过期，通过 {@link JdbcPlusTemplate#create(Class, EntityCache)}
+ * 绑定到模板，同一模板的写操作自动失效对应主键：
+ * <ul>
+ * <li>读路径只访问 ConcurrentHashMap 与频率草图，不加锁</li>
+ * <li>访问频率由 4 位计数的 Count-Min 草图近似统计，计数总量达到阈值后减半，使过时的热度逐渐衰减</li>
+ * <li>超出容量时按写入顺序扫描淘汰候选，频率高于新条目的候选移到队尾保留；连续若干个候选都更热时拒绝新条目，
+ * 避免一次性的访问冲刷热点数据</li>
+ * <li>淘汰由抢到 tryLock 的写线程执行，其他线程不等待，容量可能短暂超出</li>
+ * </ul>
+ * 缓存保存的是实体副本，调用方修改查询结果不影响缓存
+ */
+public final class EntityCache<T> {
+    private static final int MAX_SCAN = 8;
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToIntFunction<? super T> weigher;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Object, Node<T>> map = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<T>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EntityCache(long maximumSize, Duration ttl) {
+        this(maximumSize, 0, null, ttl);
+    }
+
+    /**
+     * @param maximumSize   最大条数
+     * @param maximumWeight 最大总权重，小于等于 0 时不限制
+     * @param weigher       单个实体的权重，为 null 时每个实体计 1
+     * @param ttl           写入后的存活时间，为 null 时不过期
+     */
+    public EntityCache(long maximumSize, long maximumWeight, ToIntFunction<? super T> weigher, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache maximum size must be positive, given: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    T get(Object id) {
+        Object key = key(id);
+        sketch.increment(key);
+        Node<T> node = map.get(key);
+        if (node != null && node.isExpired(System.nanoTime())) {
+            remove(node);
+            node = null;
+        }
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * @return 当前失效版本，查询数据库前读取，写入结果时传给 {@link #put}
+     */
+    long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * 写入查询结果；stamp 之后发生过失效时丢弃，避免写操作之前读到的旧值在失效之后写回缓存
+     */
+    void put(Object id, T value, long stamp) {
+        if (invalidations.get() != stamp) {
+            return;
+        }
+        Object key = key(id);
+        Node<T> node = new Node<>(key, value, weigher == null ? 1 : weigher.applyAsInt(value),
+                ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos);
+        weight.addAndGet(node.weight);
+        Node<T> old = map.put(key, node);
+        if (old != null) {
+            retire(old);
+        }
+        order.add(node);
+        queued.incrementAndGet();
+        // 检查与写入之间发生的失效可能已错过本条目
+        if (invalidations.get() != stamp) {
+            remove(node);
+        }
+        maintain(node);
+    }
+
+    void invalidate(Object id) {
+        invalidations.incrementAndGet();
+        Node<T> node = map.remove(key(id));
+        if (node != null) {
+            retire(node);
+        }
+    }
+
+    void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (Node<T> node : map.values()) {
+            remove(node);
+        }
+    }
+
+    public long size() {
+        return map.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), map.size(), weight.get());
+    }
+
+    /**
+     * 整数类型的主键统一为 Long，selectById(1) 与实体上的 1L 对应同一条目
+     */
+    private static Object key(Object id) {
+        return id instanceof Integer || id instanceof Short || id instanceof Byte ? ((Number) id).longValue() : id;
+    }
+
+    private void remove(Node<T> node) {
+        if (map.remove(node.key, node)) {
+            retire(node);
+        }
+    }
+
+    private void retire(Node<T> node) {
+        if (node.retired.compareAndSet(false, true)) {
+            weight.addAndGet(-node.weight);
+        }
+    }
+
+    private boolean overflow() {
+        return map.size() > maximumSize || (maximumWeight > 0 && weight.get() > maximumWeight);
+    }
+
+    /**
+     * 超出容量时淘汰，队列中已失效的节点过多时清理
+     */
+    private void maintain(Node<T> candidate) {
+        boolean purge = queued.get() > 2 * map.size() + MAX_SCAN;
+        if ((!purge && !overflow()) || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            if (purge) {
+                for (Iterator<Node<T>> it = order.iterator(); it.hasNext(); ) {
+                    Node<T> node = it.next();
+                    if (node.retired.get() || node.isExpired(now)) {
+                        remove(node);
+                        it.remove();
+                        queued.decrementAndGet();
+                    }
+                }
+            }
+
+            int candidateFrequency = sketch.frequency(candidate.key);
+            int scanned = 0;
+            while (overflow()) {
+                Node<T> victim = order.poll();
+                if (victim == null) {
+                    break;
+                }
+                queued.decrementAndGet();
+                if (victim.retired.get()) {
+                    continue;
+                }
+                if (victim.isExpired(now)) {
+                    remove(victim);
+                    continue;
+                }
+                if (victim != candidate && !candidate.retired.get() && sketch.frequency(victim.key) > candidateFrequency) {
+                    order.add(victim);
+                    queued.incrementAndGet();
+                    if (++scanned < MAX_SCAN) {
+                        continue;
+                    }
+                    // 新条目不如已有条目热，拒绝写入
+                    victim = candidate;
+                }
+                if (map.remove(victim.key, victim)) {
+                    retire(victim);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @param hitCount      命中次数
+     * @param missCount     未命中次数
+     * @param evictionCount 因容量淘汰或拒绝写入的条目数
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, long size, long weight) {
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    private static final class Node<T> {
+        private final Object key;
+        private final T value;
+        private final int weight;
+        private final long expireAt;
+        private final AtomicBoolean retired = new AtomicBoolean();
+
+        Node(Object key, T value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt != 0 && now - expireAt >= 0;
+        }
+    }
+
+    /**
+     * 4 行 Count-Min 草图，每个 long 存放 16 个 4 位计数，计数饱和于 15；
+     * 并发递增按 CAS 执行，冲突时放弃本次计数，统计本身是近似值
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final AtomicLongArray table;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(long maximumSize) {
+            int length = Integer.highestOneBit((int) Math.max(16, Math.min(maximumSize, 1 << 24)) - 1) << 1;
+            this.table = new AtomicLongArray(length);
+            this.mask = length - 1;
+            this.sampleSize = length * 10;
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int offset = offset(hash, i);
+                frequency = Math.min(frequency, (int) ((table.get(index(hash, i)) >>> offset) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                int offset = offset(hash, i);
+                long value = table.get(index);
+                if (((value >>> offset) & 15) != 15 && table.compareAndSet(index, value, value + (1L << offset))) {
+                    added = true;
+                }
+            }
+            if (added && additions.incrementAndGet() == sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length(); i++) {
+                table.set(i, (table.get(i) >>> 1) & RESET_MASK);
+            }
+            additions.set(sampleSize / 2);
+        }
+
+        private int index(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int offset(int hash, int i) {
+            return ((hash >>> (i << 3)) & 15) << 2;
+        }
+
+        private static int spread(int hash) {
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+}
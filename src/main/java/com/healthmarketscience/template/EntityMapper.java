@@ -0,0 +1,78 @@
+package com.healthmarketscience.template;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+/**
+ * 由 jdbcplus-processor 在编译期为 @Table 实体生成的映射器，直接调用 getter/setter 完成结果集映射与参数绑定，
+ * 并携带预渲染的按主键增删改查 SQL；生成类与实体同包，类名为实体类名加 {@link EntityMappers#SUFFIX}
+ */
+public interface EntityMapper<T> extends RowMapper<T> {
+    Class<T> getEntityClass();
+
+    /**
+     * @return 生成时列名是否由驼峰转下划线，与运行时配置不一致时不使用该映射器
+     */
+    boolean isMapUnderscoreToCamelCase();
+
+    String getTable();
+
+    /**
+     * @return 主键列名，实体没有 @Id 时为 null
+     */
+    String getIdColumn();
+
+    boolean isAutoId();
+
+    /**
+     * @return 全部列（含主键），按声明顺序，mapRow 按此顺序以列序号读取
+     */
+    List<String> getColumns();
+
+    /**
+     * @return 插入时写入的列，不含自增主键，与 {@link #getInsertValues} 顺序一致
+     */
+    List<String> getInsertColumns();
+
+    /**
+     * @return 更新时可写入的列，不含主键，与 {@link #getUpdateValues} 顺序一致
+     */
+    List<String> getUpdateColumns();
+
+    /**
+     * @return 写入全部插入列的 INSERT 语句
+     */
+    String getInsertSql();
+
+    /**
+     * @return 写入全部更新列并以主键为条件的 UPDATE 语句，参数为更新列的值加主键值；没有主键或可更新列时为 null
+     */
+    String getUpdateByIdSql();
+
+    /**
+     * @return 以主键为条件的 DELETE 语句，没有主键时为 null
+     */
+    String getDeleteByIdSql();
+
+    /**
+     * @return 查询全部列并以主键为条件的 SELECT 语句，没有主键时为 null
+     */
+    String getSelectByIdSql();
+
+    /**
+     * 按主键策略生成非自增主键并写回实体，生成器返回 null 时保留实体上已有的值
+     */
+    void generateId(T entity);
+
+    Object[] getInsertValues(T entity);
+
+    Object[] getUpdateValues(T entity);
+
+    Object getId(T entity);
+
+    /**
+     * 回写数据库生成的自增主键
+     */
+    void setGeneratedKey(T entity, Number key);
+}
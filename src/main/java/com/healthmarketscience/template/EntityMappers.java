@@ -0,0 +1,63 @@
+package com.healthmarketscience.template;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.ClassUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 按命名约定查找编译期生成的 {@link EntityMapper}，每个实体类只加载一次，未生成时返回 null 由调用方回退到反射
+ */
+public final class EntityMappers {
+    private static final Logger log = LoggerFactory.getLogger(EntityMappers.class);
+    public static final String SUFFIX = "JdbcPlusMapper";
+
+    private static final ClassValue<EntityMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected EntityMapper<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private EntityMappers() {
+    }
+
+    /**
+     * @return 实体对应的生成映射器，不存在或列名规则与当前配置不一致时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMapper<T> find(Class<T> entityClass) {
+        EntityMapper<?> mapper = MAPPERS.get(entityClass);
+        if (mapper == null || mapper.isMapUnderscoreToCamelCase() != JdbcPlusTemplateFactory.isMapUnderscoreToCamelCase()) {
+            return null;
+        }
+        return (EntityMapper<T>) mapper;
+    }
+
+    private static EntityMapper<?> load(Class<?> type) {
+        try {
+            Class<?> mapperClass = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+            return (EntityMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            log.warn("Unable to load generated mapper for {}, falling back to reflection", type.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 读取列值并转换为属性类型，枚举按字符串读取后转换，与 {@link EntityRowMapper} 的规则一致
+     */
+    public static Object getValue(ResultSet rs, int index, Class<?> type) throws SQLException {
+        Object value = JdbcUtils.getResultSetValue(rs, index, type.isEnum() ? String.class : type);
+        if (value != null && !ClassUtils.isAssignableValue(type, value)) {
+            value = DefaultConversionService.getSharedInstance().convert(value, type);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,157 @@
+package com.healthmarketscience.template;
+
+import com.healthmarketscience.core.Column;
+import com.healthmarketscience.core.EntityParse;
+import com.healthmarketscience.core.Id;
+import com.healthmarketscience.core.NamingConversionUtils;
+import com.healthmarketscience.core.TextUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按实体类缓存属性与 MethodHandle 的 RowMapper，列序号到属性的绑定按结果集结构（列名序列）缓存，
+ * 逐行映射时不再按名称查找属性；列名匹配规则与 BeanPropertyRowMapper 一致
+ */
+public class EntityRowMapper<T> implements RowMapper<T> {
+    private static final Map<Class<?>, Mapping> MAPPINGS = new ConcurrentHashMap<>();
+    private static final int MAX_SHAPES = 64;
+
+    private final Mapping mapping;
+    private ResultSet resultSet;
+    private Property[] bindings;
+
+    public EntityRowMapper(Class<T> clazz) {
+        this.mapping = MAPPINGS.computeIfAbsent(clazz, Mapping::new);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs != resultSet) {
+            bindings = mapping.resolve(rs.getMetaData());
+            resultSet = rs;
+        }
+
+        Object entity = mapping.newInstance();
+        for (int i = 0; i < bindings.length; i++) {
+            Property property = bindings[i];
+            if (property != null) {
+                property.set(entity, rs, i + 1);
+            }
+        }
+        return (T) entity;
+    }
+
+    private static final class Mapping {
+        private final Class<?> type;
+        private final MethodHandle constructor;
+        private final Map<String, Property> properties = new HashMap<>();
+        private final Map<String, Property[]> shapes = new ConcurrentHashMap<>();
+
+        Mapping(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                Constructor<?> ctor = type.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Class " + type.getName() + " has no accessible no-arg constructor", e);
+            }
+
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : EntityParse.getFields(clazz)) {
+                    Property property = new Property(field.getName(), field.getType(), setter(lookup, type, field));
+                    properties.putIfAbsent(lowerCaseName(field.getName()), property);
+                    properties.putIfAbsent(lowerCaseName(NamingConversionUtils.camelToSnake(field.getName())), property);
+                    Column column = field.getAnnotation(Column.class);
+                    if (column != null && !column.ignore() && TextUtils.isNotEmpty(column.value())) {
+                        properties.putIfAbsent(lowerCaseName(column.value()), property);
+                    }
+                    Id id = field.getAnnotation(Id.class);
+                    if (id != null && TextUtils.isNotEmpty(id.value())) {
+                        properties.putIfAbsent(lowerCaseName(id.value()), property);
+                    }
+                }
+            }
+        }
+
+        Object newInstance() {
+            try {
+                return constructor.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to instantiate " + type.getName(), e);
+            }
+        }
+
+        Property[] resolve(ResultSetMetaData metaData) throws SQLException {
+            int count = metaData.getColumnCount();
+            String[] labels = new String[count];
+            for (int i = 0; i < count; i++) {
+                labels[i] = lowerCaseName(JdbcUtils.lookupColumnName(metaData, i + 1).replace(" ", ""));
+            }
+            String shape = String.join("\u001f", labels);
+
+            Property[] bindings = shapes.get(shape);
+            if (bindings == null) {
+                bindings = new Property[count];
+                for (int i = 0; i < count; i++) {
+                    bindings[i] = properties.get(labels[i]);
+                }
+                if (shapes.size() < MAX_SHAPES) {
+                    shapes.putIfAbsent(shape, bindings);
+                }
+            }
+            return bindings;
+        }
+
+        private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> type, Field field) {
+            MethodType methodType = MethodType.methodType(void.class, Object.class, Object.class);
+            try {
+                try {
+                    Method method = type.getMethod("set" + StringUtils.capitalize(field.getName()), field.getType());
+                    method.setAccessible(true);
+                    return lookup.unreflect(method).asType(methodType);
+                } catch (NoSuchMethodException e) {
+                    return lookup.unreflectSetter(field).asType(methodType);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to access field: " + field.getName(), e);
+            }
+        }
+
+        private static String lowerCaseName(String name) {
+            return name.toLowerCase(Locale.US);
+        }
+    }
+
+    private record Property(String name, Class<?> type, MethodHandle setter) {
+        void set(Object entity, ResultSet rs, int index) throws SQLException {
+            Object value = EntityMappers.getValue(rs, index, type);
+            if (value == null && type.isPrimitive()) {
+                return;
+            }
+
+            try {
+                setter.invokeExact(entity, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to set property: " + name, e);
+            }
+        }
+    }
+}
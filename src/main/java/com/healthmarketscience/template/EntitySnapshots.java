@@ -0,0 +1,107 @@
+package com.healthmarketscience.template;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 开启 dirtyTracking 后按实体对象身份（不依赖 equals/hashCode）记录查询时可更新列的值，实体被回收后快照随之清理；
+ * 快照保存值引用而非散列，避免散列碰撞导致漏写，数组与 Date 等可变值保存副本
+ */
+final class EntitySnapshots {
+    private static final Map<IdentityKey, Snapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    private EntitySnapshots() {
+    }
+
+    static Snapshot get(Object entity) {
+        return SNAPSHOTS.get(new IdentityKey(entity, null));
+    }
+
+    static void put(Object entity, List<String> columns, Object[] values) {
+        expunge();
+        Object[] copy = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copy[i] = copy(values[i]);
+        }
+        SNAPSHOTS.put(new IdentityKey(entity, QUEUE), new Snapshot(columns, copy));
+    }
+
+    private static void expunge() {
+        for (Reference<?> reference; (reference = QUEUE.poll()) != null; ) {
+            SNAPSHOTS.remove(reference);
+        }
+    }
+
+    /**
+     * @return 数组与 Date 等可变值的副本，其余值原样返回
+     */
+    static Object copy(Object value) {
+        if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        }
+        if (value instanceof Date date) {
+            return date.clone();
+        }
+        return value;
+    }
+
+    /**
+     * @param columns 取快照时的可更新列，列名规则变化后与当前列不一致时快照失效
+     */
+    record Snapshot(List<String> columns, Object[] values) {
+        /**
+         * @return 值发生变化的列序号，快照已失效时返回 null
+         */
+        int[] changed(List<String> currentColumns, Object[] currentValues) {
+            if (!columns.equals(currentColumns)) {
+                return null;
+            }
+            int[] changed = new int[currentValues.length];
+            int count = 0;
+            for (int i = 0; i < currentValues.length; i++) {
+                if (!Objects.deepEquals(values[i], currentValues[i])) {
+                    changed[count++] = i;
+                }
+            }
+            return count == changed.length ? changed : Arrays.copyOf(changed, count);
+        }
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityKey other)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == other.get();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.healthmarketscience.template;
+
+import com.healthmarketscience.core.Dialect;
+import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.sqlbuilder.ComboCondition;
+import com.healthmarketscience.sqlbuilder.Condition;
+import com.healthmarketscience.sqlbuilder.CustomSql;
+import com.healthmarketscience.sqlbuilder.InCondition;
+import com.healthmarketscience.sqlbuilder.Subquery;
+import com.healthmarketscience.sqlbuilder.ValueObject;
+import com.healthmarketscience.sqlbuilder.custom.postgresql.PgBinaryCondition;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按元素个数与方言选择 IN 列表的渲染方式，阈值见 {@link com.healthmarketscience.core.JdbcPlusProperties}：
+ * <ul>
+ * <li>事务中达到 inListTempTableThreshold：条件为 IN (SELECT v FROM 临时表)，构建时分配的 {@link TempTable}
+ * 在语句执行前批量写入会话临时表（同一事务内只写入一次），事务结束时删除</li>
+ * <li>PostgreSQL 绑定参数模式下达到 inListArrayThreshold：= ANY(?)，整个列表绑定为一个数组参数</li>
+ * <li>超过 inListChunkSize：拆分为 (c IN (...)) OR (c IN (...))</li>
+ * <li>其余保持单个 IN 列表</li>
+ * </ul>
+ * 元素类型不一致或无法映射为数据库类型时不使用数组与临时表。
+ * 绑定参数上限作用于整条语句而非单个列表，拆分为 OR 不减少参数个数，超出上限的语句由
+ * {@link JdbcPlusTemplate#prepare} 处理
+ */
+public final class InListConditions {
+    private static final String TEMP_TABLE_PREFIX = "jdbcplus_in_";
+    private static final int TEMP_TABLE_BATCH_SIZE = 1000;
+    private static final int MAX_TEMP_VARCHAR_LENGTH = 4000;
+    private static final AtomicLong TEMP_TABLE_IDS = new AtomicLong();
+
+    private InListConditions() {
+    }
+
+    public static Condition in(DbColumn column, Collection<?> values) {
+        Dialect dialect = JdbcPlusTemplateFactory.getDialect();
+        int size = values.size();
+        if (useArray(dialect, values)) {
+            String type = arrayType(values);
+            return PgBinaryCondition.equalToAny(column,
+                    ValueObject.parameter(new ArrayParameter(type, arrayElements(type, values))));
+        }
+
+        int chunkSize = JdbcPlusTemplateFactory.getInListChunkSize();
+        if (size <= chunkSize) {
+            return new BinaryCondition(BinaryCondition.Op.IN, column, values);
+        }
+        List<?> list = new ArrayList<>(values);
+        ComboCondition or = ComboCondition.or();
+        for (int from = 0; from < size; from += chunkSize) {
+            or.addCondition(new BinaryCondition(BinaryCondition.Op.IN, column,
+                    list.subList(from, Math.min(from + chunkSize, size))));
+        }
+        return or;
+    }
+
+    /**
+     * 绑定参数模式下将单个 IN 列表的元素个数补齐到 2 的幂（重复最后一个元素，不影响结果），
+     * 使不同长度的列表只产生少量不同的 SQL；补齐后会改用数组、临时表或拆分的列表保持原样
+     */
+    public static Collection<?> pad(Collection<?> values) {
+        int size = values.size();
+        if (size < 3 || !JdbcPlusTemplateFactory.isUseBindParameters()) {
+            return values;
+        }
+        int padded = Integer.highestOneBit(size - 1) << 1;
+        int tempTableThreshold = JdbcPlusTemplateFactory.getInListTempTableThreshold();
+        int arrayThreshold = JdbcPlusTemplateFactory.getInListArrayThreshold();
+        if (padded == size || padded > JdbcPlusTemplateFactory.getInListChunkSize()
+                || (tempTableThreshold > 0 && padded >= tempTableThreshold)
+                || (JdbcPlusTemplateFactory.getDialect() == Dialect.POSTGRESQL && arrayThreshold > 0 && padded >= arrayThreshold)) {
+            return values;
+        }
+        List<Object> list = new ArrayList<>(padded);
+        list.addAll(values);
+        Object last = list.get(size - 1);
+        while (list.size() < padded) {
+            list.add(last);
+        }
+        return list;
+    }
+
+    /**
+     * @return 事务中达到 inListTempTableThreshold 且方言、类型支持时返回 true；绑定参数模式下单个列表已超过整条语句的参数上限
+     *         （如 SQL Server 达到 2100）且不能绑定为数组时，不论阈值同样返回 true；事务外后续语句可能拿到另一个连接，不使用临时表
+     */
+    public static boolean useTempTable(Collection<?> values) {
+        Dialect dialect = JdbcPlusTemplateFactory.getDialect();
+        int threshold = JdbcPlusTemplateFactory.getInListTempTableThreshold();
+        boolean overflow = JdbcPlusTemplateFactory.isUseBindParameters() && dialect.getMaxParameters() > 0
+                && values.size() > dialect.getMaxParameters() && !useArray(dialect, values);
+        return (overflow || threshold > 0 && values.size() >= threshold)
+                && JdbcPlusTemplateFactory.getJdbcPlusTemplate() != null
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && tempTableType(dialect, values) != null;
+    }
+
+    /**
+     * 在当前事务中为列表分配临时表名，同一事务中的同一列表实例（如分页的 COUNT 与数据查询共用的条件）复用同一张表；
+     * 此时不访问数据库，执行前由 {@link #materialize} 创建并写入；应先由 {@link #useTempTable} 判断
+     */
+    public static TempTable tempTable(Collection<?> values) {
+        Dialect dialect = JdbcPlusTemplateFactory.getDialect();
+        String type = tempTableType(dialect, values);
+        if (type == null) {
+            throw new IllegalArgumentException("Values cannot be stored in a temp table");
+        }
+        TransactionTempTables tempTables = transactionTempTables(JdbcPlusTemplateFactory.getJdbcPlusTemplate().jdbcTemplate());
+        return tempTables.allocated.computeIfAbsent(values,
+                key -> new TempTable(dialect, TEMP_TABLE_PREFIX + TEMP_TABLE_IDS.incrementAndGet(), type, key));
+    }
+
+    /**
+     * 在当前事务中创建并写入语句引用的临时表，同一事务内已创建的不再重复创建，事务提交或回滚前删除
+     */
+    public static void materialize(JdbcTemplate jdbcTemplate, List<TempTable> tempTables) {
+        if (tempTables.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("IN list temp tables require a transaction, fetch the query again outside of it");
+        }
+        TransactionTempTables transactionTempTables = transactionTempTables(jdbcTemplate);
+        for (TempTable tempTable : tempTables) {
+            if (!transactionTempTables.created.contains(tempTable)) {
+                tempTable.create(jdbcTemplate);
+                transactionTempTables.created.add(tempTable);
+            }
+        }
+    }
+
+    /**
+     * @return 当前事务的临时表登记，首次使用时注册为事务同步
+     */
+    private static TransactionTempTables transactionTempTables(JdbcTemplate jdbcTemplate) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionTempTables transactionTempTables) {
+                return transactionTempTables;
+            }
+        }
+        TransactionTempTables transactionTempTables = new TransactionTempTables(jdbcTemplate);
+        TransactionSynchronizationManager.registerSynchronization(transactionTempTables);
+        return transactionTempTables;
+    }
+
+    private static boolean useArray(Dialect dialect, Collection<?> values) {
+        int threshold = JdbcPlusTemplateFactory.getInListArrayThreshold();
+        return dialect == Dialect.POSTGRESQL && threshold > 0 && values.size() >= threshold
+                && JdbcPlusTemplateFactory.isUseBindParameters() && arrayType(values) != null;
+    }
+
+    /**
+     * @return 数组元素，bigint 数组中的 Integer、Short、Byte 转为 Long，与数组类型一致
+     */
+    private static Object[] arrayElements(String type, Collection<?> values) {
+        Object[] elements = values.toArray();
+        if ("bigint".equals(type)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] instanceof Number number) {
+                    elements[i] = number.longValue();
+                }
+            }
+        }
+        return elements;
+    }
+
+    private static String arrayType(Collection<?> values) {
+        Class<?> type = elementType(values);
+        if (type == Long.class) {
+            return "bigint";
+        }
+        if (type == String.class) {
+            return "varchar";
+        }
+        if (type == UUID.class) {
+            return "uuid";
+        }
+        return null;
+    }
+
+    private static String tempTableType(Dialect dialect, Collection<?> values) {
+        if (dialect != Dialect.POSTGRESQL && dialect != Dialect.MYSQL && dialect != Dialect.SQLSERVER) {
+            return null;
+        }
+        Class<?> type = elementType(values);
+        if (type == Long.class) {
+            return "BIGINT";
+        }
+        if (type != String.class) {
+            return null;
+        }
+        int length = 1;
+        for (Object value : values) {
+            if (value != null) {
+                length = Math.max(length, ((String) value).length());
+            }
+        }
+        if (length > MAX_TEMP_VARCHAR_LENGTH) {
+            return null;
+        }
+        // SQL Server 临时表位于 tempdb，使用当前库的排序规则避免与业务表比较时冲突
+        return dialect == Dialect.SQLSERVER
+                ? "NVARCHAR(" + length + ") COLLATE DATABASE_DEFAULT" : "VARCHAR(" + length + ")";
+    }
+
+    /**
+     * @return 非 null 元素的公共类型，整数类型统一为 Long，类型不一致或全为 null 时返回 null
+     */
+    private static Class<?> elementType(Collection<?> values) {
+        Class<?> type = null;
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            Class<?> valueType = value instanceof Integer || value instanceof Short || value instanceof Byte
+                    ? Long.class : value.getClass();
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                return null;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * 会话临时表，条件为 IN (SELECT v FROM 临时表)，不改变行的重复次数；表名在构建时分配，创建后不可变
+     */
+    public static final class TempTable {
+        private final Dialect dialect;
+        private final String name;
+        private final String type;
+        private final List<Object> rows;
+
+        private TempTable(Dialect dialect, String name, String type, Collection<?> values) {
+            this.dialect = dialect;
+            this.name = dialect == Dialect.SQLSERVER ? "#" + name : name;
+            this.type = type;
+            // NULL 不会使 IN 成立，无需写入
+            this.rows = new ArrayList<>(values.size());
+            for (Object value : values) {
+                if (value != null) {
+                    rows.add(value);
+                }
+            }
+        }
+
+        public Condition condition(DbColumn column) {
+            return new InCondition(column, new Subquery(new CustomSql("SELECT v FROM " + name)));
+        }
+
+        private void create(JdbcTemplate jdbcTemplate) {
+            jdbcTemplate.execute(switch (dialect) {
+                // 提交或回滚时自动删除
+                case POSTGRESQL -> "CREATE TEMP TABLE " + name + " (v " + type + ") ON COMMIT DROP";
+                case MYSQL -> "CREATE TEMPORARY TABLE " + name + " (v " + type + ")";
+                default -> "CREATE TABLE " + name + " (v " + type + ")";
+            });
+            jdbcTemplate.batchUpdate("INSERT INTO " + name + " (v) VALUES (?)", rows, TEMP_TABLE_BATCH_SIZE,
+                    (ps, value) -> ps.setObject(1, value));
+        }
+
+        /**
+         * @return 删除语句，PostgreSQL 随事务结束自动删除，返回 null
+         */
+        private String drop() {
+            return switch (dialect) {
+                case POSTGRESQL -> null;
+                case MYSQL -> "DROP TEMPORARY TABLE IF EXISTS " + name;
+                default -> "DROP TABLE " + name;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * 当前事务中按列表实例分配与已创建的临时表，已创建的在事务提交或回滚前删除，此时连接仍绑定在当前线程，避免临时表残留在连接池的连接上；
+     * 挂起事务时随事务同步一起挂起，新事务会重新创建
+     */
+    private static final class TransactionTempTables implements TransactionSynchronization {
+        private final JdbcTemplate jdbcTemplate;
+        private final Map<Collection<?>, TempTable> allocated = new IdentityHashMap<>();
+        private final Set<TempTable> created = new HashSet<>();
+
+        private TransactionTempTables(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            for (TempTable table : created) {
+                String drop = table.drop();
+                if (drop == null) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.execute(drop);
+                } catch (DataAccessException e) {
+                    // 连接关闭时会话临时表随之释放
+                }
+            }
+        }
+    }
+
+    /**
+     * 绑定为单个 SQL 数组的参数，按元素相等，可作为查询结果缓存的键
+     */
+    public static final class ArrayParameter implements SqlTypeValue {
+        private final String elementType;
+        private final Object[] elements;
+
+        ArrayParameter(String elementType, Object[] elements) {
+            this.elementType = elementType;
+            this.elements = elements;
+        }
+
+        @Override
+        public void setTypeValue(PreparedStatement ps, int paramIndex, int sqlType, String typeName)
+                throws SQLException {
+            ps.setArray(paramIndex, ps.getConnection().createArrayOf(elementType, elements));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArrayParameter other && elementType.equals(other.elementType)
+                    && Arrays.equals(elements, other.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * elementType.hashCode() + Arrays.hashCode(elements);
+        }
+
+        @Override
+        public String toString() {
+            return elementType + "[" + elements.length + "]";
+        }
+    }
+}
@@ -1,52 +1,295 @@
 package com.healthmarketscience.template;
 
+import com.healthmarketscience.core.Dialect;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.Query;
+import com.healthmarketscience.sqlbuilder.SqlContext;
+import com.healthmarketscience.sqlbuilder.dbspec.Table;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
 import com.healthmarketscience.wrapper.SelectWrapper;
-import com.healthmarketscience.wrapper.UpdateWrapperHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.KeyHolder;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public record JdbcPlusTemplate(JdbcTemplate jdbcTemplate) {
     private static final Logger log = LoggerFactory.getLogger(JdbcPlusTemplate.class);
+    private static final int DEFAULT_SQL_SIZE = 256;
 
     public <T> List<T> list(SelectWrapper selectWrapper, Class<T> clazz) {
-        return list(selectWrapper, new BeanPropertyRowMapper<>(clazz));
+        return list(selectWrapper, new EntityRowMapper<>(clazz), clazz);
     }
 
+    /**
+     * 不使用 {@link SelectWrapper#cacheable} 的结果缓存
+     */
     public <T> List<T> list(SelectWrapper selectWrapper, Class<T> clazz, int maxSize) {
-        return list(selectWrapper, new BeanPropertyRowMapper<>(clazz));
+        PreparedSql preparedSql = limit(selectWrapper, maxSize).prepare(this);
+        logSql(preparedSql);
+        return jdbcTemplate.query(statement(preparedSql, maxSize, 0), new EntityRowMapper<>(clazz));
     }
 
     public List<?> list(SelectWrapper selectWrapper) {
-        return list(selectWrapper, new ColumnMapRowMapper());
+        return list(selectWrapper, new ColumnMapRowMapper(), Map.class);
     }
 
-    private <T> List<T> list(SelectWrapper selectWrapper, RowMapper<T> rowMapper) {
-        String sql = selectWrapper.getQuery().validate().toString();
-        log.debug(sql);
-        return jdbcTemplate.query(sql, rowMapper);
+    /**
+     * 开启结果缓存时按 RowMapper 实例区分结果，需复用同一实例才能命中
+     */
+    public <T> List<T> list(SelectWrapper selectWrapper, RowMapper<T> rowMapper) {
+        return list(selectWrapper, rowMapper, rowMapper);
     }
 
-    public int update(UpdateWrapperHandler updateWrapperHandler) {
-        String sql = updateWrapperHandler.builder();
-        log.debug(sql);
-        return jdbcTemplate.update(sql);
+    private <T> List<T> list(SelectWrapper selectWrapper, RowMapper<T> rowMapper, Object resultType) {
+        PreparedSql preparedSql = selectWrapper.prepare(this);
+        Duration ttl = selectWrapper.getCacheTtl();
+        if (ttl == null) {
+            return query(preparedSql, rowMapper);
+        }
+        return QueryResultCache.get(resultType, preparedSql, selectWrapper.getTables(), ttl,
+                () -> query(preparedSql, rowMapper));
+    }
+
+    public <T> List<T> query(PreparedSql preparedSql, RowMapper<T> rowMapper) {
+        logSql(preparedSql);
+        if (!preparedSql.hasArgs()) {
+            return jdbcTemplate.query(preparedSql.sql(), rowMapper);
+        }
+        return jdbcTemplate.query(preparedSql.sql(), rowMapper, preparedSql.args());
+    }
+
+    /**
+     * 分页查询，先执行由同一查询推导出的 COUNT，总数不足时不再查询数据；
+     * 未配置方言时不渲染 LIMIT，由 Statement.setMaxRows 截断并跳过前面的行，深分页应配置 jdbc-plus.dialect
+     *
+     * @param page 页码，从 1 开始
+     * @param size 每页行数
+     */
+    public <T> Page<T> page(SelectWrapper selectWrapper, Class<T> clazz, int page, int size) {
+        if (page < 1 || size < 1) {
+            throw new IllegalArgumentException("Page and size must be positive, given: " + page + ", " + size);
+        }
+        long total = count(selectWrapper);
+        long offset = (long) (page - 1) * size;
+        if (offset >= total) {
+            return new Page<>(List.of(), total, page, size);
+        }
+        if (JdbcPlusTemplateFactory.getDialect() == Dialect.OTHER) {
+            // 未配置方言时无法确定 LIMIT 语法，由 setMaxRows 截断并在结果集中跳过前 offset 行
+            return new Page<>(skip(selectWrapper.copy().fetch(), clazz, offset, size), total, page, size);
+        }
+        // 在副本上设置分页，调用方的实例仍可用于完整查询
+        SelectWrapper pageWrapper = selectWrapper.copy().offset(offset).limit(size).fetch();
+        return new Page<>(list(pageWrapper, clazz), total, page, size);
+    }
+
+    public long count(SelectWrapper selectWrapper) {
+        PreparedSql preparedSql = selectWrapper.prepareCount(this);
+        logSql(preparedSql);
+        Long count = jdbcTemplate.queryForObject(preparedSql.sql(), Long.class, preparedSql.args());
+        return count == null ? 0 : count;
+    }
+
+    public <T> Stream<T> stream(SelectWrapper selectWrapper, Class<T> clazz) {
+        return stream(selectWrapper, clazz, 0);
     }
 
-    public int update(KeyHolder keyHolder, UpdateWrapperHandler updateWrapperHandler) {
-        String sql = updateWrapperHandler.builder();
+    public <T> Stream<T> stream(SelectWrapper selectWrapper, Class<T> clazz, int maxSize) {
+        return stream(selectWrapper, clazz, maxSize, JdbcPlusTemplateFactory.getFetchSize());
+    }
+
+    /**
+     * 流式查询，按 fetchSize 分批从游标读取并逐行映射，不会一次性加载全部结果；
+     * 返回的 Stream 必须关闭（try-with-resources），关闭时释放 ResultSet、Statement 与连接；不使用结果缓存
+     *
+     * @param maxSize   最大行数，同时作用于 LIMIT 与 Statement.setMaxRows（未配置方言时只作用于后者），小于等于 0 时不限制
+     * @param fetchSize 每批拉取的行数，小于等于 0 时使用驱动默认值
+     */
+    public <T> Stream<T> stream(SelectWrapper selectWrapper, Class<T> clazz, int maxSize, int fetchSize) {
+        PreparedSql preparedSql = limit(selectWrapper, maxSize).prepare(this);
+        logSql(preparedSql);
+        return jdbcTemplate.queryForStream(statement(preparedSql, maxSize, fetchSize), new EntityRowMapper<>(clazz));
+    }
+
+    public int update(PreparedSql preparedSql) {
+        logSql(preparedSql);
+        if (!preparedSql.hasArgs()) {
+            return jdbcTemplate.update(preparedSql.sql());
+        }
+        return jdbcTemplate.update(preparedSql.sql(), preparedSql.args());
+    }
+
+    public int update(KeyHolder keyHolder, PreparedSql preparedSql) {
+        logSql(preparedSql);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(preparedSql.sql(), Statement.RETURN_GENERATED_KEYS);
+            new ArgumentPreparedStatementSetter(preparedSql.args()).setValues(ps);
+            return ps;
+        }, keyHolder);
+    }
+
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs, KeyHolder keyHolder) {
+        return batchUpdate(sql, batchArgs, keyHolder, null);
+    }
+
+    /**
+     * @param keyColumn 返回的主键列，为 null 时由驱动决定返回哪些列（PostgreSQL 会返回整行）
+     */
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs, KeyHolder keyHolder, String keyColumn) {
         log.debug(sql);
-        return jdbcTemplate.update(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS), keyHolder);
+        if (keyHolder == null) {
+            return jdbcTemplate.batchUpdate(sql, batchArgs);
+        }
+        return jdbcTemplate.batchUpdate(con -> keyColumn == null
+                        ? con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                        : con.prepareStatement(sql, new String[]{keyColumn}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(batchArgs.get(i)).setValues(ps);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batchArgs.size();
+                    }
+                }, keyHolder);
+    }
+
+    /**
+     * 执行多行插入，按当前方言的参数个数、行数与语句长度上限拆分为多条语句，完成后使该表的查询结果缓存失效
+     *
+     * @return 插入的总行数
+     */
+    public int insertRows(InsertQuery insertQuery) {
+        int count = 0;
+        for (InsertQuery chunk : JdbcPlusTemplateFactory.getDialect().split(insertQuery)) {
+            PreparedSql preparedSql = prepare(chunk);
+            logSql(preparedSql);
+            count += preparedSql.hasArgs()
+                    ? jdbcTemplate.update(preparedSql.sql(), preparedSql.args())
+                    : jdbcTemplate.update(preparedSql.sql());
+        }
+        Table table = insertQuery.getIntoTable();
+        if (table != null) {
+            QueryResultCache.invalidate(table instanceof DbTable dbTable ? dbTable.getName() : table.getTableNameSQL());
+        }
+        return count;
+    }
+
+    /**
+     * 按 validation 策略校验并渲染查询，开启 useBindParameters 时字面量输出为 ? 并收集到绑定参数中；
+     * 参数个数超过方言上限（如 SQL Server 达到 2100）时，参数均为数值则改为字面量渲染，否则抛出异常，
+     * 此时应在事务中执行以使用 IN 列表临时表（见 {@link InListConditions}）
+     */
+    public PreparedSql prepare(Query<?> query) {
+        SqlContext context = new SqlContext();
+        context.setUseBindParameters(JdbcPlusTemplateFactory.isUseBindParameters());
+        String sql = JdbcPlusTemplateFactory.getValidationPolicy().render(query, DEFAULT_SQL_SIZE, context);
+        List<Object> parameters = context.getParameters();
+        Dialect dialect = JdbcPlusTemplateFactory.getDialect();
+        if (dialect.getMaxParameters() > 0 && parameters.size() > dialect.getMaxParameters()) {
+            if (!isLiteralSafe(parameters)) {
+                throw new IllegalArgumentException("Statement has " + parameters.size()
+                        + " bind parameters, " + dialect + " allows " + dialect.getMaxParameters()
+                        + ", run it in a transaction to use IN list temp tables");
+            }
+            // 字面量不受参数上限限制
+            log.debug("Statement has {} bind parameters, {} allows {}, rendering numeric literals instead",
+                    parameters.size(), dialect, dialect.getMaxParameters());
+            return new PreparedSql(JdbcPlusTemplateFactory.getValidationPolicy().render(query, DEFAULT_SQL_SIZE, new SqlContext()));
+        }
+        return parameters.isEmpty() ? new PreparedSql(sql) : new PreparedSql(sql, parameters.toArray());
     }
 
     public <T> CrudTemplate<T> create(Class<T> clazz) {
         return new SimpleTemplate<>(this, clazz);
     }
+
+    /**
+     * 创建带实体缓存的模板，selectById 优先读取缓存，该模板的写操作自动失效对应主键；
+     * 绕过该模板的写入只能等待缓存过期
+     */
+    public <T> CrudTemplate<T> create(Class<T> clazz, EntityCache<T> cache) {
+        return new SimpleTemplate<>(this, clazz, cache);
+    }
+
+    /**
+     * 在副本上收紧行数限制，不修改调用方的实例；未配置方言时无法确定 LIMIT 语法，只依赖 Statement.setMaxRows
+     */
+    private static SelectWrapper limit(SelectWrapper selectWrapper, int maxSize) {
+        if (maxSize > 0 && JdbcPlusTemplateFactory.getDialect() != Dialect.OTHER
+                && (selectWrapper.getLimit() <= 0 || selectWrapper.getLimit() > maxSize)) {
+            return selectWrapper.copy().limit(maxSize).fetch();
+        }
+        return selectWrapper;
+    }
+
+    /**
+     * @return 参数均为数值时返回 true，字符串等以字面量输出时不会转义
+     */
+    private static boolean isLiteralSafe(List<Object> parameters) {
+        for (Object parameter : parameters) {
+            if (!(parameter instanceof Number)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> List<T> skip(SelectWrapper selectWrapper, Class<T> clazz, long offset, int size) {
+        PreparedSql preparedSql = selectWrapper.prepare(this);
+        logSql(preparedSql);
+        RowMapper<T> rowMapper = new EntityRowMapper<>(clazz);
+        return jdbcTemplate.query(statement(preparedSql, Math.toIntExact(offset + size), 0), (ResultSetExtractor<List<T>>) rs -> {
+            List<T> rows = new ArrayList<>(size);
+            for (long i = 0; i < offset; i++) {
+                if (!rs.next()) {
+                    return rows;
+                }
+            }
+            while (rs.next()) {
+                rows.add(rowMapper.mapRow(rs, rows.size()));
+            }
+            return rows;
+        });
+    }
+
+    private static PreparedStatementCreator statement(PreparedSql preparedSql, int maxRows, int fetchSize) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(preparedSql.sql());
+            if (maxRows > 0) {
+                ps.setMaxRows(maxRows);
+            }
+            if (fetchSize > 0) {
+                // 部分驱动要求 fetchSize 不大于 maxRows
+                ps.setFetchSize(maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize);
+            }
+            new ArgumentPreparedStatementSetter(preparedSql.args()).setValues(ps);
+            return ps;
+        };
+    }
+
+    private static void logSql(PreparedSql preparedSql) {
+        log.debug(preparedSql.sql());
+        if (preparedSql.hasArgs() && log.isDebugEnabled()) {
+            log.debug("parameters: {}", Arrays.toString(preparedSql.args()));
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.healthmarketscience.template;
 
+import com.healthmarketscience.core.IdGenerator;
+import com.healthmarketscience.core.IdGeneratorFactory;
 import com.healthmarketscience.core.JdbcPlusProperties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -12,8 +15,14 @@ import org.springframework.jdbc.core.JdbcTemplate;
 @EnableConfigurationProperties(JdbcPlusProperties.class)
 public class JdbcPlusTemplateAutoConfiguration {
     @Bean
-    public JdbcPlusTemplate jdbcPlusTemplate(JdbcTemplate jdbcTemplate, JdbcPlusProperties jdbcPlusProperties) {
+    public JdbcPlusTemplate jdbcPlusTemplate(JdbcTemplate jdbcTemplate, JdbcPlusProperties jdbcPlusProperties,
+                                             ObjectProvider<IdGenerator> idGenerators) {
         JdbcPlusTemplateFactory.setJdbcPlusProperties(jdbcPlusProperties);
-        return JdbcPlusTemplateFactory.create(jdbcTemplate);
+        JdbcPlusTemplate jdbcPlusTemplate = JdbcPlusTemplateFactory.create(jdbcTemplate);
+        // 自定义 IdGenerator Bean 覆盖同一主键策略的内置生成器
+        idGenerators.orderedStream()
+                .filter(generator -> generator.getIdType() != null)
+                .forEach(generator -> IdGeneratorFactory.register(generator.getIdType(), generator));
+        return jdbcPlusTemplate;
     }
 }
@@ -1,6 +1,12 @@
 package com.healthmarketscience.template;
 
+import com.healthmarketscience.core.Dialect;
+import com.healthmarketscience.core.IdGeneratorFactory;
+import com.healthmarketscience.core.IdType;
 import com.healthmarketscience.core.JdbcPlusProperties;
+import com.healthmarketscience.core.SegmentGenerator;
+import com.healthmarketscience.core.SnowflakeGenerator;
+import com.healthmarketscience.core.ValidationPolicy;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 public class JdbcPlusTemplateFactory {
@@ -13,9 +19,27 @@ public class JdbcPlusTemplateFactory {
 
     public static JdbcPlusTemplate create(JdbcTemplate jdbcTemplate) {
         jdbcPlusTemplate = new JdbcPlusTemplate(jdbcTemplate);
+        registerIdGenerators(jdbcTemplate);
         return jdbcPlusTemplate;
     }
 
+    /**
+     * 按配置注册 SNOWFLAKE 的 workerId 与依赖数据源的 SEGMENT 生成器
+     */
+    private static void registerIdGenerators(JdbcTemplate jdbcTemplate) {
+        if (jdbcPlusProperties != null && jdbcPlusProperties.getWorkerId() != null) {
+            IdGeneratorFactory.register(IdType.SNOWFLAKE, new SnowflakeGenerator(jdbcPlusProperties.getWorkerId()));
+        }
+        if (jdbcTemplate.getDataSource() != null) {
+            String table = jdbcPlusProperties == null || jdbcPlusProperties.getIdSegmentTable() == null
+                    ? SegmentGenerator.DEFAULT_TABLE : jdbcPlusProperties.getIdSegmentTable();
+            int step = jdbcPlusProperties == null || jdbcPlusProperties.getIdSegmentStep() == null
+                    ? SegmentGenerator.DEFAULT_STEP : jdbcPlusProperties.getIdSegmentStep();
+            IdGeneratorFactory.register(IdType.SEGMENT, new SegmentGenerator(jdbcTemplate.getDataSource(), getDialect(),
+                    table, SegmentGenerator.DEFAULT_NAME, step));
+        }
+    }
+
     public static JdbcPlusProperties getJdbcPlusProperties() {
         return jdbcPlusProperties;
     }
@@ -23,4 +47,62 @@ public class JdbcPlusTemplateFactory {
     public static void setJdbcPlusProperties(JdbcPlusProperties properties) {
         jdbcPlusProperties = properties;
     }
+
+    public static boolean isUseBindParameters() {
+        return jdbcPlusProperties != null && Boolean.TRUE.equals(jdbcPlusProperties.getUseBindParameters());
+    }
+
+    public static boolean isMapUnderscoreToCamelCase() {
+        return jdbcPlusProperties != null && Boolean.TRUE.equals(jdbcPlusProperties.getMapUnderscoreToCamelCase());
+    }
+
+    public static boolean isDirtyTracking() {
+        return jdbcPlusProperties != null && Boolean.TRUE.equals(jdbcPlusProperties.getDirtyTracking());
+    }
+
+    public static int getFetchSize() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getFetchSize() == null) {
+            return 0;
+        }
+        return jdbcPlusProperties.getFetchSize();
+    }
+
+    public static Dialect getDialect() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getDialect() == null) {
+            return Dialect.OTHER;
+        }
+        return jdbcPlusProperties.getDialect();
+    }
+
+    public static ValidationPolicy getValidationPolicy() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getValidation() == null) {
+            return ValidationPolicy.ALWAYS;
+        }
+        return jdbcPlusProperties.getValidation();
+    }
+
+    /**
+     * @return IN 列表拆分为 OR 的元素个数，未配置时取方言上限
+     */
+    public static int getInListChunkSize() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getInListChunkSize() == null
+                || jdbcPlusProperties.getInListChunkSize() <= 0) {
+            return getDialect().getMaxInListSize();
+        }
+        return Math.min(jdbcPlusProperties.getInListChunkSize(), getDialect().getMaxInListSize());
+    }
+
+    public static int getInListArrayThreshold() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getInListArrayThreshold() == null) {
+            return 0;
+        }
+        return jdbcPlusProperties.getInListArrayThreshold();
+    }
+
+    public static int getInListTempTableThreshold() {
+        if (jdbcPlusProperties == null || jdbcPlusProperties.getInListTempTableThreshold() == null) {
+            return 0;
+        }
+        return jdbcPlusProperties.getInListTempTableThreshold();
+    }
 }
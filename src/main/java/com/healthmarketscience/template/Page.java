@@ -0,0 +1,12 @@
+package com.healthmarketscience.template;
+
+import java.util.List;
+
+/**
+ * 分页结果，page 从 1 开始
+ */
+public record Page<T>(List<T> records, long total, int page, int size) {
+    public long pages() {
+        return (total + size - 1) / size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.healthmarketscience.template;
+
+/**
+ * 渲染后的 SQL 及其按 ? 顺序排列的绑定参数
+ */
+public record PreparedSql(String sql, Object[] args) {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    public PreparedSql(String sql) {
+        this(sql, NO_ARGS);
+    }
+
+    public boolean hasArgs() {
+        return args.length > 0;
+    }
+}
@@ -0,0 +1,148 @@
+package com.healthmarketscience.template;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存，按渲染后的 SQL、绑定参数与结果类型缓存 {@link com.healthmarketscience.wrapper.SelectWrapper#cacheable}
+ * 查询的结果；每张表维护一个版本号，条目记录查询前所读各表的版本，读取时版本不一致即失效，写操作只需递增版本而无需扫描条目。
+ * UpdateWrapper 与 SimpleTemplate 的写操作自动递增版本，直接执行 SQL 的写入需调用 {@link #invalidate(String)}。
+ * 缓存的结果为共享实例，不应修改
+ */
+public final class QueryResultCache {
+    private static final int MAX_ENTRIES = 1024;
+    private static final Map<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private QueryResultCache() {
+    }
+
+    /**
+     * @param resultType 结果映射的标识（实体类或 RowMapper），同一 SQL 映射为不同类型时分别缓存
+     * @param tables     查询读取的表
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> get(Object resultType, PreparedSql preparedSql, Collection<String> tables, Duration ttl,
+                           Supplier<List<T>> loader) {
+        Key key = new Key(resultType, preparedSql.sql(), Arrays.asList(preparedSql.args()));
+        long now = System.nanoTime();
+        Entry entry = ENTRIES.get(key);
+        if (entry != null) {
+            if (entry.isValid(now)) {
+                return (List<T>) entry.rows;
+            }
+            ENTRIES.remove(key, entry);
+        }
+
+        // 先读版本再查询，查询期间发生的写入会使本条目在下次读取时失效
+        String[] names = new String[tables.size()];
+        long[] versions = new long[names.length];
+        int i = 0;
+        for (String table : tables) {
+            names[i] = normalize(table);
+            versions[i] = version(names[i]);
+            i++;
+        }
+        List<T> rows = Collections.unmodifiableList(loader.get());
+        // 事务中可能读到未提交的数据，不写入缓存
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            put(key, new Entry(names, versions, rows, now + ttl.toNanos()));
+        }
+        return rows;
+    }
+
+    /**
+     * 递增表版本，使读取该表的缓存结果失效；事务中提交或回滚后再递增一次，
+     * 避免其他线程在提交前读到旧值并写回缓存
+     */
+    public static void invalidate(String table) {
+        String name = normalize(table);
+        increment(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    increment(name);
+                }
+            });
+        }
+    }
+
+    public static void clear() {
+        ENTRIES.clear();
+    }
+
+    public static int size() {
+        return ENTRIES.size();
+    }
+
+    private static void put(Key key, Entry entry) {
+        if (ENTRIES.size() >= MAX_ENTRIES) {
+            purge();
+        }
+        if (ENTRIES.size() < MAX_ENTRIES) {
+            ENTRIES.put(key, entry);
+        }
+    }
+
+    /**
+     * 清理已过期或已失效的条目
+     */
+    private static void purge() {
+        long now = System.nanoTime();
+        ENTRIES.values().removeIf(entry -> !entry.isValid(now));
+    }
+
+    private static void increment(String name) {
+        VERSIONS.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static long version(String name) {
+        AtomicLong version = VERSIONS.get(name);
+        return version == null ? 0 : version.get();
+    }
+
+    private static String normalize(String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(Object resultType, String sql, List<Object> args) {
+    }
+
+    private static final class Entry {
+        private final String[] tables;
+        private final long[] versions;
+        private final List<?> rows;
+        private final long expireAt;
+
+        Entry(String[] tables, long[] versions, List<?> rows, long expireAt) {
+            this.tables = tables;
+            this.versions = versions;
+            this.rows = rows;
+            this.expireAt = expireAt;
+        }
+
+        boolean isValid(long now) {
+            if (now - expireAt >= 0) {
+                return false;
+            }
+            for (int i = 0; i < tables.length; i++) {
+                if (version(tables[i]) != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
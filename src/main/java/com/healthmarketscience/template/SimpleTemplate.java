@@ -1,29 +1,89 @@
 package com.healthmarketscience.template;
 
 import com.healthmarketscience.core.CollectionUtils;
+import com.healthmarketscience.core.Dialect;
+import com.healthmarketscience.core.EntityField;
+import com.healthmarketscience.core.EntityMetadata;
 import com.healthmarketscience.core.EntityParse;
+import com.healthmarketscience.core.IdType;
+import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.sqlbuilder.InsertQuery;
+import com.healthmarketscience.sqlbuilder.SqlObject;
+import com.healthmarketscience.sqlbuilder.UpdateQuery;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbSpec;
+import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
 import com.healthmarketscience.wrapper.*;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Field;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class SimpleTemplate<T> implements CrudTemplate<T> {
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    /**
+     * 按实体类缓存渲染后的 upsert 语句，方言、列名规则或映射器变化时重新渲染
+     */
+    private static final Map<Class<?>, UpsertSql> UPSERT_SQL = new ConcurrentHashMap<>();
+
     private final JdbcPlusTemplate jdbcPlusTemplate;
     private final Class<T> entityClass;
-    private final List<String> id = new ArrayList<>();
-    private String idAlias;
-    private final List<Column> columns = new ArrayList<>();
+    private final EntityCache<T> cache;
 
     public SimpleTemplate(JdbcPlusTemplate jdbcPlusTemplate, Class<T> clazz) {
+        this(jdbcPlusTemplate, clazz, null);
+    }
+
+    /**
+     * @param cache selectById 的实体缓存，为 null 时不缓存
+     */
+    public SimpleTemplate(JdbcPlusTemplate jdbcPlusTemplate, Class<T> clazz, EntityCache<T> cache) {
         this.jdbcPlusTemplate = jdbcPlusTemplate;
         this.entityClass = clazz;
-        EntityParse.resolveField(id, idAlias, columns, entityClass);
+        this.cache = cache;
+    }
+
+    private EntityMetadata metadata() {
+        return EntityMetadata.of(entityClass);
+    }
+
+    /**
+     * @return 编译期生成的映射器，不存在时各方法回退到基于反射的 EntityMetadata
+     */
+    private EntityMapper<T> mapper() {
+        return EntityMappers.find(entityClass);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public int insert(Object entity) {
+        int result = insertEntity(entity);
+        evictEntities(Collections.singletonList((T) entity));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int insertEntity(Object entity) {
+        EntityMapper<T> mapper = mapper();
+        if (mapper != null) {
+            return insert(mapper, (T) entity);
+        }
+
         Table table = new Table(this.entityClass);
 
         List<Update> updates = new ArrayList<>();
@@ -50,63 +110,683 @@ public class SimpleTemplate<T> implements CrudTemplate<T> {
         return 1;
     }
 
+    /**
+     * 全部列非空时使用预渲染的 INSERT，否则与反射路径一致只写入非空列与主键列
+     */
+    private int insert(EntityMapper<T> mapper, T entity) {
+        mapper.generateId(entity);
+        Object[] values = mapper.getInsertValues(entity);
+
+        KeyHolder keyHolder = mapper.isAutoId() ? new GeneratedKeyHolder() : null;
+        int result;
+        if (!containsNull(values)) {
+            PreparedSql preparedSql = new PreparedSql(mapper.getInsertSql(), values);
+            result = keyHolder == null ? jdbcPlusTemplate.update(preparedSql) : jdbcPlusTemplate.update(keyHolder, preparedSql);
+        } else {
+            List<String> columns = mapper.getInsertColumns();
+            Table table = new Table(mapper.getTable(), columns(mapper));
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null || columns.get(i).equals(mapper.getIdColumn())) {
+                    table.getUpdates().add(new Update(new Column(columns.get(i)), values[i]));
+                }
+            }
+            result = new UpdateWrapper()
+                    .update(table, UpdateEnums.INSERT)
+                    .execute();
+            keyHolder = table.getKeyHolder();
+        }
+
+        if (result == 0) {
+            return 0;
+        }
+
+        if (keyHolder != null) {
+            Number key = keyHolder.getKey();
+            if (key != null) {
+                mapper.setGeneratedKey(entity, key);
+            }
+        }
+
+        return 1;
+    }
+
+    @Override
+    public int insertBatch(Collection<T> entities, int batchSize) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return 0;
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, given: " + batchSize);
+        }
+
+        EntityMapper<T> mapper = mapper();
+        BatchInsert<T> insert;
+        if (mapper != null) {
+            insert = new BatchInsert<>(mapper.getInsertSql(), mapper.isAutoId() ? mapper.getIdColumn() : null, entity -> {
+                mapper.generateId(entity);
+                return mapper.getInsertValues(entity);
+            }, mapper::setGeneratedKey);
+        } else {
+            EntityMetadata metadata = metadata();
+            List<EntityField> fields = metadata.getInsertFields();
+            EntityField id = metadata.getAutoId();
+            insert = new BatchInsert<>(buildBatchInsert(metadata), id == null ? null : id.getColumn(),
+                    entity -> EntityParse.resolveInsertValues(fields, entity),
+                    id == null ? null : id::setKey);
+        }
+
+        int result = 0;
+        List<T> batch = new ArrayList<>(Math.min(batchSize, entities.size()));
+        for (T entity : entities) {
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                result += executeBatchInsert(insert, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            result += executeBatchInsert(insert, batch);
+        }
+
+        evictEntities(entities);
+        return result;
+    }
+
+    /**
+     * 批量插入的语句、自增主键列（没有时为 null）、逐行参数与主键回写方式，分别来自生成的映射器或反射元数据
+     */
+    private record BatchInsert<T>(String sql, String autoIdColumn,
+                                  Function<T, Object[]> values, BiConsumer<T, Number> keySetter) {
+    }
+
+    private String buildBatchInsert(EntityMetadata metadata) {
+        DbTable table = new DbSpec().addDefaultSchema().addTable(metadata.getTable());
+        InsertQuery insert = new InsertQuery(table);
+        for (EntityField field : metadata.getInsertFields()) {
+            insert.addPreparedColumns(table.addColumn(field.getColumn()));
+        }
+        return insert.validate().toString();
+    }
+
+    private int executeBatchInsert(BatchInsert<T> insert, List<T> batch) {
+        List<Object[]> batchArgs = new ArrayList<>(batch.size());
+        for (T entity : batch) {
+            batchArgs.add(insert.values().apply(entity));
+        }
+
+        KeyHolder keyHolder = insert.autoIdColumn() != null ? new GeneratedKeyHolder() : null;
+        int[] counts = jdbcPlusTemplate.batchUpdate(insert.sql(), batchArgs, keyHolder, insert.autoIdColumn());
+
+        if (keyHolder != null) {
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            // 驱动不支持批量返回主键时条数对不上，跳过回写
+            if (keys.size() == batch.size()) {
+                for (int i = 0; i < keys.size(); i++) {
+                    Object key = generatedKey(keys.get(i), insert.autoIdColumn());
+                    if (key instanceof Number) {
+                        insert.keySetter().accept(batch.get(i), (Number) key);
+                    }
+                }
+            }
+        }
+
+        return sum(counts);
+    }
+
+    /**
+     * 按主键列名取生成的主键，忽略大小写；驱动使用自己的列名（如 MySQL 的 GENERATED_KEY）且只返回一列时取该列
+     */
+    private static Object generatedKey(Map<String, Object> keys, String idColumn) {
+        for (Map.Entry<String, Object> entry : keys.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(idColumn)) {
+                return entry.getValue();
+            }
+        }
+        return keys.size() == 1 ? keys.values().iterator().next() : null;
+    }
+
+    private static int sum(int[] counts) {
+        int result = 0;
+        for (int count : counts) {
+            result += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return result;
+    }
+
     @Override
     public int deleteById(Object id) {
+        int result = deleteEntity(id);
+        evict(Collections.singletonList(id));
+        return result;
+    }
+
+    private int deleteEntity(Object id) {
+        EntityMapper<T> mapper = mapper();
+        if (mapper != null && mapper.getDeleteByIdSql() != null) {
+            return jdbcPlusTemplate.update(new PreparedSql(mapper.getDeleteByIdSql(), new Object[]{id}));
+        }
+
+        String idColumn = metadata().requireId().getColumn();
         Table table = new Table(this.entityClass);
         Condition condition = table.newCondition();
-        condition.eq(this.id.get(0), id);
-        CollectionUtils.addAll(table.getColumns(), List.of(new Column(this.id.get(0))));
+        condition.eq(idColumn, id);
+        CollectionUtils.addAll(table.getColumns(), List.of(new Column(idColumn)));
         return new UpdateWrapper()
                 .update(table, UpdateEnums.DELETE)
                 .where(condition)
                 .execute();
     }
 
+    @Override
+    public int deleteByIds(Collection<?> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return 0;
+        }
+
+        EntityMapper<T> mapper = mapper();
+        String idColumn = idColumn(mapper);
+        int chunkSize = JdbcPlusTemplateFactory.getDialect().getMaxInListSize();
+        List<Object> values = new ArrayList<>(ids);
+        int result = 0;
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            Table table = newTable(mapper);
+            Condition condition = table.newCondition();
+            condition.in(idColumn, values.subList(from, Math.min(from + chunkSize, values.size())));
+            result += new UpdateWrapper()
+                    .update(table, UpdateEnums.DELETE)
+                    .where(condition)
+                    .execute();
+        }
+        evict(ids);
+        return result;
+    }
+
     @Override
     public int delete() {
         Table table = new Table(this.entityClass);
-        return new UpdateWrapper()
+        int result = new UpdateWrapper()
                 .update(table, UpdateEnums.DELETE)
                 .execute();
+        evict(null);
+        return result;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public int updateById(Object entity) {
+        int result = updateEntity(entity);
+        evictEntities(Collections.singletonList((T) entity));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int updateEntity(Object entity) {
+        EntityMapper<T> mapper = mapper();
+        if (JdbcPlusTemplateFactory.isDirtyTracking()) {
+            EntitySnapshots.Snapshot snapshot = EntitySnapshots.get(entity);
+            if (snapshot != null) {
+                int[] changed = snapshot.changed(updateColumns(mapper), updateValues(mapper, (T) entity));
+                if (changed != null) {
+                    return updateChanged(mapper, (T) entity, changed);
+                }
+            }
+        }
+        if (mapper != null && mapper.getUpdateByIdSql() != null) {
+            return updateById(mapper, (T) entity);
+        }
+
         List<Update> updates = new ArrayList<>();
         Object id = EntityParse.resolveUpdate(entityClass, entity, updates);
 
         Table table = new Table(this.entityClass);
         CollectionUtils.addAll(table.getUpdates(), updates);
         Condition condition = table.newCondition();
-        condition.eq(this.id.get(0), id);
+        condition.eq(metadata().requireId().getColumn(), id);
 
         return new UpdateWrapper().update(table)
                 .where(condition)
                 .execute();
     }
 
+    /**
+     * 全部列非空时使用预渲染的 UPDATE，否则与反射路径一致只更新非空列
+     */
+    private int updateById(EntityMapper<T> mapper, T entity) {
+        Object[] values = mapper.getUpdateValues(entity);
+        Object id = mapper.getId(entity);
+        if (!containsNull(values)) {
+            Object[] args = Arrays.copyOf(values, values.length + 1);
+            args[values.length] = id;
+            return jdbcPlusTemplate.update(new PreparedSql(mapper.getUpdateByIdSql(), args));
+        }
+
+        List<String> columns = mapper.getUpdateColumns();
+        Table table = new Table(mapper.getTable(), columns(mapper));
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                table.getUpdates().add(new Update(new Column(columns.get(i)), values[i]));
+            }
+        }
+        Condition condition = table.newCondition();
+        condition.eq(mapper.getIdColumn(), id);
+
+        return new UpdateWrapper().update(table)
+                .where(condition)
+                .execute();
+    }
+
+    /**
+     * 只更新相对快照发生变化的列（包括被置为 null 的列），没有变化时不执行语句并返回 0
+     */
+    private int updateChanged(EntityMapper<T> mapper, T entity, int[] changed) {
+        if (changed.length == 0) {
+            return 0;
+        }
+
+        List<String> columns = updateColumns(mapper);
+        Object[] values = updateValues(mapper, entity);
+        Table table = newTable(mapper);
+        for (int i : changed) {
+            table.getUpdates().add(new Update(new Column(columns.get(i)), values[i]));
+        }
+        Condition condition = table.newCondition();
+        condition.eq(idColumn(mapper), idValue(mapper, entity));
+
+        int result = new UpdateWrapper().update(table)
+                .where(condition)
+                .execute();
+        EntitySnapshots.put(entity, columns, values);
+        return result;
+    }
+
+    @Override
+    public int updateBatchById(Collection<T> entities) {
+        return updateBatchById(entities, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public int updateBatchById(Collection<T> entities, int batchSize) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return 0;
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, given: " + batchSize);
+        }
+
+        EntityMapper<T> mapper = mapper();
+        List<String> columns = updateColumns(mapper);
+        boolean tracking = JdbcPlusTemplateFactory.isDirtyTracking();
+        Map<BitSet, BatchUpdate<T>> batches = new LinkedHashMap<>();
+        int result = 0;
+        for (T entity : entities) {
+            Object[] values = updateValues(mapper, entity);
+            BitSet changed = changedColumns(entity, columns, values, tracking);
+            if (changed.isEmpty()) {
+                continue;
+            }
+
+            Object[] args = new Object[changed.cardinality() + 1];
+            int index = 0;
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                args[index++] = values[i];
+            }
+            args[index] = idValue(mapper, entity);
+            BatchUpdate<T> batch = batches.computeIfAbsent(changed,
+                    key -> new BatchUpdate<>(buildBatchUpdate(tableName(mapper), columns, key, idColumn(mapper))));
+            batch.add(entity, values, args);
+            // 每组攒满一批即执行，不持有全部实体的参数
+            if (batch.args.size() == batchSize) {
+                result += executeBatchUpdate(batch, columns, tracking);
+            }
+        }
+
+        for (BatchUpdate<T> batch : batches.values()) {
+            if (!batch.args.isEmpty()) {
+                result += executeBatchUpdate(batch, columns, tracking);
+            }
+        }
+        evictEntities(entities);
+        return result;
+    }
+
+    private int executeBatchUpdate(BatchUpdate<T> batch, List<String> columns, boolean tracking) {
+        int result = sum(jdbcPlusTemplate.batchUpdate(batch.sql, batch.args, null));
+        if (tracking) {
+            for (int i = 0; i < batch.entities.size(); i++) {
+                EntitySnapshots.put(batch.entities.get(i), columns, batch.values.get(i));
+            }
+        }
+        batch.clear();
+        return result;
+    }
+
+    /**
+     * 有快照时取相对快照变化的列，否则与 updateById 一致取非空列
+     */
+    private static BitSet changedColumns(Object entity, List<String> columns, Object[] values, boolean tracking) {
+        BitSet changed = new BitSet(values.length);
+        int[] indexes = null;
+        if (tracking) {
+            EntitySnapshots.Snapshot snapshot = EntitySnapshots.get(entity);
+            indexes = snapshot == null ? null : snapshot.changed(columns, values);
+        }
+        if (indexes != null) {
+            for (int i : indexes) {
+                changed.set(i);
+            }
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    changed.set(i);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static String buildBatchUpdate(String tableName, List<String> columns, BitSet changed, String idColumn) {
+        DbTable table = new DbSpec().addDefaultSchema().addTable(tableName);
+        UpdateQuery update = new UpdateQuery(table);
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            update.addSetClause(table.addColumn(columns.get(i)), SqlObject.QUESTION_MARK);
+        }
+        update.addCondition(BinaryCondition.equalTo(table.addColumn(idColumn), SqlObject.QUESTION_MARK));
+        return update.validate().toString();
+    }
+
+    /**
+     * 更新列相同的一组实体及其参数，按列集合合并为一个 JDBC 批次
+     */
+    private record UpsertSql(Dialect dialect, boolean mapUnderscoreToCamelCase, boolean mapped, String sql) {
+    }
+
+    private static final class BatchUpdate<T> {
+        private final String sql;
+        private final List<T> entities = new ArrayList<>();
+        private final List<Object[]> values = new ArrayList<>();
+        private final List<Object[]> args = new ArrayList<>();
+
+        BatchUpdate(String sql) {
+            this.sql = sql;
+        }
+
+        void add(T entity, Object[] entityValues, Object[] entityArgs) {
+            entities.add(entity);
+            values.add(entityValues);
+            args.add(entityArgs);
+        }
+
+        void clear() {
+            entities.clear();
+            values.clear();
+            args.clear();
+        }
+    }
+
+    private String tableName(EntityMapper<T> mapper) {
+        return mapper != null ? mapper.getTable() : metadata().getTable();
+    }
+
+    private Table newTable(EntityMapper<T> mapper) {
+        return mapper != null ? new Table(mapper.getTable(), columns(mapper)) : new Table(this.entityClass);
+    }
+
+    private String idColumn(EntityMapper<T> mapper) {
+        return mapper != null && mapper.getIdColumn() != null ? mapper.getIdColumn() : metadata().requireId().getColumn();
+    }
+
+    private Object idValue(EntityMapper<T> mapper, T entity) {
+        return mapper != null && mapper.getIdColumn() != null ? mapper.getId(entity) : metadata().requireId().get(entity);
+    }
+
+    private List<String> updateColumns(EntityMapper<T> mapper) {
+        return mapper != null ? mapper.getUpdateColumns() : metadata().getUpdateColumns();
+    }
+
+    private Object[] updateValues(EntityMapper<T> mapper, T entity) {
+        if (mapper != null) {
+            return mapper.getUpdateValues(entity);
+        }
+        List<EntityField> fields = metadata().getUpdateFields();
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fields.get(i).get(entity);
+        }
+        return values;
+    }
+
+    /**
+     * 开启 dirtyTracking 时记录查询结果的快照
+     */
+    private List<T> track(EntityMapper<T> mapper, List<T> entities) {
+        if (JdbcPlusTemplateFactory.isDirtyTracking()) {
+            List<String> columns = updateColumns(mapper);
+            for (T entity : entities) {
+                EntitySnapshots.put(entity, columns, updateValues(mapper, entity));
+            }
+        }
+        return entities;
+    }
+
     @Override
     public int update() {
         return 0;
     }
 
+    @Override
+    public int upsert(T entity) {
+        EntityMapper<T> mapper = mapper();
+        if (upsertId(mapper, entity) == null) {
+            return insert(entity);
+        }
+        int result = jdbcPlusTemplate.update(new PreparedSql(upsertSql(mapper), upsertValues(mapper, entity)));
+        evictEntities(Collections.singletonList(entity));
+        return result;
+    }
+
+    @Override
+    public int upsertBatch(Collection<T> entities) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return 0;
+        }
+
+        EntityMapper<T> mapper = mapper();
+        List<T> inserts = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            if (upsertId(mapper, entity) == null) {
+                inserts.add(entity);
+            } else {
+                batchArgs.add(upsertValues(mapper, entity));
+            }
+        }
+
+        int result = 0;
+        if (!batchArgs.isEmpty()) {
+            result += sum(jdbcPlusTemplate.batchUpdate(upsertSql(mapper), batchArgs, null));
+            evictEntities(entities);
+        }
+        if (!inserts.isEmpty()) {
+            result += insertBatch(inserts, inserts.size());
+        }
+        return result;
+    }
+
+    /**
+     * 主键为空时按主键策略生成，自增主键无法预先生成，返回 null 表示改为插入
+     */
+    private Object upsertId(EntityMapper<T> mapper, T entity) {
+        Object id = idValue(mapper, entity);
+        if (id != null) {
+            return id;
+        }
+        if (mapper != null && mapper.getIdColumn() != null) {
+            if (mapper.isAutoId()) {
+                return null;
+            }
+            mapper.generateId(entity);
+            return mapper.getId(entity);
+        }
+        EntityField field = metadata().requireId();
+        return field.getIdType() == IdType.AUTO ? null : EntityParse.resolveInsertValues(List.of(field), entity)[0];
+    }
+
+    private Object[] upsertValues(EntityMapper<T> mapper, T entity) {
+        Object[] values = updateValues(mapper, entity);
+        Object[] args = new Object[values.length + 1];
+        args[0] = idValue(mapper, entity);
+        System.arraycopy(values, 0, args, 1, values.length);
+        return args;
+    }
+
+    private String upsertSql(EntityMapper<T> mapper) {
+        Dialect dialect = JdbcPlusTemplateFactory.getDialect();
+        boolean mapUnderscoreToCamelCase = JdbcPlusTemplateFactory.isMapUnderscoreToCamelCase();
+        UpsertSql upsert = UPSERT_SQL.get(entityClass);
+        if (upsert == null || upsert.dialect() != dialect || upsert.mapUnderscoreToCamelCase() != mapUnderscoreToCamelCase
+                || upsert.mapped() != (mapper != null)) {
+            upsert = new UpsertSql(dialect, mapUnderscoreToCamelCase, mapper != null, buildUpsert(mapper));
+            UPSERT_SQL.put(entityClass, upsert);
+        }
+        return upsert.sql();
+    }
+
+    /**
+     * 渲染按主键 upsert 的预编译语句，绑定参数依次为主键列与可更新列
+     */
+    private String buildUpsert(EntityMapper<T> mapper) {
+        DbTable table = new DbSpec().addDefaultSchema().addTable(tableName(mapper));
+        DbColumn[] keyColumns = {table.addColumn(idColumn(mapper))};
+        List<String> columns = updateColumns(mapper);
+        DbColumn[] updateColumns = new DbColumn[columns.size()];
+        for (int i = 0; i < updateColumns.length; i++) {
+            updateColumns[i] = table.addColumn(columns.get(i));
+        }
+        return JdbcPlusTemplateFactory.getDialect().upsert(table, keyColumns, updateColumns).validate().toString();
+    }
+
     @Override
     public Optional<T> selectById(Object id) {
-        if (this.id.isEmpty()) {
-            throw new IllegalArgumentException("Table " + entityClass.getName() + " has no @Id annotation");
+        if (cache == null || id == null) {
+            return selectEntity(id);
+        }
+
+        T cached = cache.get(id);
+        if (cached != null) {
+            return Optional.of(track(mapper(), List.of(copy(cached))).get(0));
         }
-        return this.selectList(QueryCondition.eq(this.id.get(0), id))
+        long stamp = cache.stamp();
+        Optional<T> entity = selectEntity(id);
+        // 事务中可能读到未提交的数据，不写入缓存
+        if (entity.isPresent() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            cache.put(id, copy(entity.get()), stamp);
+        }
+        return entity;
+    }
+
+    private Optional<T> selectEntity(Object id) {
+        EntityMapper<T> mapper = mapper();
+        if (mapper != null && mapper.getSelectByIdSql() != null) {
+            return track(mapper, jdbcPlusTemplate.query(new PreparedSql(mapper.getSelectByIdSql(), new Object[]{id}), mapper))
+                    .stream().findFirst();
+        }
+
+        return this.selectList(QueryCondition.eq(metadata().requireId().getColumn(), id))
                 .orElse(new ArrayList<>())
                 .stream().findFirst();
     }
 
     @Override
     public Optional<List<T>> selectList(QueryCondition... conditions) {
-        Table t = new Table(entityClass, columns);
+        EntityMapper<T> mapper = mapper();
+        if (mapper != null) {
+            // 映射器按列序号读取，查询列与 getColumns() 顺序一致
+            return Optional.of(track(mapper, jdbcPlusTemplate.list(new SelectWrapper()
+                    .query(new Table(mapper.getTable(), columns(mapper)))
+                    .where(conditions)
+                    .fetch(), mapper)));
+        }
 
-        return Optional.of(jdbcPlusTemplate.list(new SelectWrapper()
+        Table t = new Table(entityClass, EntityParse.getColumns(entityClass));
+
+        return Optional.of(track(null, jdbcPlusTemplate.list(new SelectWrapper()
                 .query(t)
                 .where(conditions)
-                .fetch(), entityClass));
+                .fetch(), entityClass)));
+    }
+
+    /**
+     * 缓存与调用方互不共享实体实例，可变字段值同样复制
+     */
+    @SuppressWarnings("unchecked")
+    private T copy(T entity) {
+        EntityMetadata metadata = metadata();
+        T copy = (T) metadata.newInstance();
+        for (EntityField field : metadata.getFields()) {
+            field.set(copy, EntitySnapshots.copy(field.get(entity)));
+        }
+        return copy;
+    }
+
+    private void evictEntities(Collection<T> entities) {
+        List<Object> ids = new ArrayList<>(cache == null ? 0 : entities.size());
+        if (cache != null) {
+            EntityMapper<T> mapper = mapper();
+            for (T entity : entities) {
+                ids.add(idValue(mapper, entity));
+            }
+        }
+        evict(ids);
+    }
+
+    /**
+     * 写操作后失效查询结果缓存与实体缓存，ids 为 null 时清空实体缓存；事务中提交或回滚后再失效一次，
+     * 避免其他线程在提交前读到旧值并写回缓存
+     */
+    private void evict(Collection<?> ids) {
+        QueryResultCache.invalidate(tableName(mapper()));
+        if (cache == null) {
+            return;
+        }
+        invalidate(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Object> pending = ids == null ? null : new ArrayList<>(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(pending);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Collection<?> ids) {
+        if (ids == null) {
+            cache.invalidateAll();
+            return;
+        }
+        for (Object id : ids) {
+            if (id != null) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    private static Column[] columns(EntityMapper<?> mapper) {
+        List<String> names = mapper.getColumns();
+        Column[] columns = new Column[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(names.get(i));
+        }
+        return columns;
+    }
+
+    private static boolean containsNull(Object[] values) {
+        for (Object value : values) {
+            if (value == null) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -2,6 +2,7 @@ package com.healthmarketscience.wrapper;
 
 import com.healthmarketscience.core.LambdaUtils;
 import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.template.InListConditions;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,8 +49,8 @@ public class Condition {
     }
 
     public void in(String column, Object value) {
-        if (value instanceof Collection) {
-            queryConditions.add(new QueryCondition(column, BinaryCondition.Op.IN, value));
+        if (value instanceof Collection<?> values) {
+            queryConditions.add(new QueryCondition(column, BinaryCondition.Op.IN, InListConditions.pad(values)));
         }
         else if (value.getClass().isPrimitive() || value instanceof Number || value instanceof String || value instanceof Character || value instanceof Boolean) {
             List<Object> collection = new ArrayList<>();
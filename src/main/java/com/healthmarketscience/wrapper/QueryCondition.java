@@ -4,6 +4,9 @@ import com.healthmarketscience.core.LambdaUtils;
 import com.healthmarketscience.sqlbuilder.BinaryCondition;
 import com.healthmarketscience.sqlbuilder.Condition;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
+import com.healthmarketscience.template.InListConditions;
+
+import java.util.Collection;
 
 public class QueryCondition {
     private final String column;
@@ -36,7 +39,21 @@ public class QueryCondition {
         return eq(LambdaUtils.extractColumnName(column), value);
     }
 
+    /**
+     * @return IN 列表在当前事务中使用的临时表，不使用时为 null
+     */
+    public InListConditions.TempTable tempTable() {
+        if (operator == BinaryCondition.Op.IN && value instanceof Collection<?> values
+                && InListConditions.useTempTable(values)) {
+            return InListConditions.tempTable(values);
+        }
+        return null;
+    }
+
     public Condition wrapper(DbColumn dbColumn) {
+        if (operator == BinaryCondition.Op.IN && value instanceof Collection<?> values) {
+            return InListConditions.in(dbColumn, values);
+        }
         return new BinaryCondition(operator, dbColumn, value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.healthmarketscience.wrapper;
+
+import com.healthmarketscience.sqlbuilder.SqlObject;
+import com.healthmarketscience.sqlbuilder.ValueObject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按查询结构（表、列、连接类型、条件操作符、排序，不含值）缓存渲染后的 SQL，
+ * 仅在绑定参数模式下使用，相同结构的查询直接复用 SQL 并按条件顺序收集参数；
+ * 行数与偏移量作为绑定参数不进入结构，IN 列表按补齐后的个数区分，结构数达到上限后清空重新记录
+ */
+public class QueryShapeCache {
+    static final char SEPARATOR = '\u001f';
+    private static final int MAX_SHAPES = 2048;
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+    public static String get(String shape) {
+        return SHAPES.get(shape);
+    }
+
+    public static void put(String shape, String sql) {
+        if (SHAPES.size() >= MAX_SHAPES) {
+            SHAPES.clear();
+        }
+        SHAPES.putIfAbsent(shape, sql);
+    }
+
+    public static void clear() {
+        SHAPES.clear();
+    }
+
+    /**
+     * 追加值在 SQL 中的形态：null 与布尔值会被渲染为字面量，集合按元素个数展开为多个 ?
+     *
+     * @return 值为自定义 SqlObject 等无法缓存的形态时返回 false
+     */
+    static boolean appendValueShape(StringBuilder shape, Object value) {
+        if (value == null) {
+            shape.append('N');
+        } else if (value instanceof Boolean) {
+            shape.append('B').append(value);
+        } else if (value instanceof SqlObject) {
+            return false;
+        } else if (value instanceof Collection<?> collection) {
+            shape.append('C').append(collection.size());
+        } else {
+            shape.append('?');
+        }
+        shape.append(SEPARATOR);
+        return true;
+    }
+
+    /**
+     * 按渲染顺序收集值对应的绑定参数，与 {@link #appendValueShape} 的形态一致
+     */
+    static void collectValues(List<Object> values, Object value) {
+        if (value == null || value instanceof Boolean) {
+            return;
+        }
+        if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                values.add(ValueObject.toParameter(item));
+            }
+            return;
+        }
+        values.add(ValueObject.toParameter(value));
+    }
+}
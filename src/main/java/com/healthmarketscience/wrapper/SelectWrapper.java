@@ -1,21 +1,43 @@
 package com.healthmarketscience.wrapper;
 
 import com.healthmarketscience.core.CollectionUtils;
+import com.healthmarketscience.core.Dialect;
 import com.healthmarketscience.core.TextUtils;
 import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.sqlbuilder.ComboCondition;
+import com.healthmarketscience.sqlbuilder.ComboExpression;
+import com.healthmarketscience.sqlbuilder.Converter;
+import com.healthmarketscience.sqlbuilder.FunctionCall;
 import com.healthmarketscience.sqlbuilder.OrderObject;
 import com.healthmarketscience.sqlbuilder.SelectQuery;
+import com.healthmarketscience.sqlbuilder.SqlObject;
+import com.healthmarketscience.sqlbuilder.ValidationContext;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.*;
+import com.healthmarketscience.template.InListConditions;
+import com.healthmarketscience.template.JdbcPlusTemplate;
+import com.healthmarketscience.template.JdbcPlusTemplateFactory;
+import com.healthmarketscience.template.PreparedSql;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SelectWrapper {
     private Table from;
     private final List<Table> joins = new ArrayList<>();
     private final List<Condition> conditions = new ArrayList<>();
     private final List<Order> orders = new ArrayList<>();
+    private Object[] seekValues;
+    private long limit;
+    private long offset;
+    private Duration cacheTtl;
     private SelectQuery query;
+    private String shape;
+    private PreparedSql preparedSql;
+    private List<InListConditions.TempTable> tempTables = List.of();
 
     public SelectWrapper query(Table table) {
         this.from = table;
@@ -67,11 +89,217 @@ public class SelectWrapper {
         return this;
     }
 
+    /**
+     * 键集分页：只返回排序位置在上一页最后一行之后的记录，lastValues 与排序列一一对应，
+     * 渲染为行值比较或展开的 OR 条件，深分页仍走索引范围扫描；排序列需能唯一确定一行（通常以主键结尾）
+     */
+    public SelectWrapper seekAfter(Object... lastValues) {
+        this.seekValues = lastValues;
+        return this;
+    }
+
+    public SelectWrapper seekAfter(Order[] orders, Object... lastValues) {
+        for (Order order : orders) {
+            this.order(order);
+        }
+        return this.seekAfter(lastValues);
+    }
+
+    /**
+     * 限制返回的最大行数，按方言渲染为 LIMIT / TOP / FETCH NEXT；未配置 jdbc-plus.dialect 时 fetch 抛出异常
+     */
+    public SelectWrapper limit(long limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * 跳过的行数，仅在设置了 limit 时生效
+     */
+    public SelectWrapper offset(long offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 缓存 list 查询的结果，按 SQL 与绑定参数命中，所读表（含条件中子查询引用的表）发生写入或超过 ttl 后失效；
+     * 仅在 CustomSql 等自定义 SQL 文本中出现的表无法识别，写入这些表不会使缓存失效；
+     * 带 maxSize 的 list 与 stream 不使用缓存
+     *
+     * @see com.healthmarketscience.template.QueryResultCache
+     */
+    public SelectWrapper cacheable(Duration ttl) {
+        this.cacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * @return 结果缓存的存活时间，未开启缓存时为 null
+     */
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * @return 查询读取的表，包括连接的表与条件值中子查询引用的表
+     */
+    public Set<String> getTables() {
+        Set<String> tables = new LinkedHashSet<>();
+        tables.add(from.getName());
+        for (Table join : joins) {
+            tables.add(join.getName());
+        }
+        for (Condition condition : conditions) {
+            for (QueryCondition where : condition.getWheres()) {
+                if (where.getValue() instanceof SqlObject sqlObject) {
+                    for (com.healthmarketscience.sqlbuilder.dbspec.Table table : ValidationContext.collectAllTables(sqlObject)) {
+                        tables.add(table instanceof DbTable dbTable ? dbTable.getName() : table.getTableNameSQL());
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * @return 查询条件、排序、行数限制与缓存设置相同的新实例，需重新 fetch；修改副本的 limit/offset 不影响原实例
+     */
+    public SelectWrapper copy() {
+        SelectWrapper copy = new SelectWrapper();
+        copy.from = this.from;
+        copy.joins.addAll(this.joins);
+        copy.conditions.addAll(this.conditions);
+        copy.orders.addAll(this.orders);
+        copy.seekValues = this.seekValues;
+        copy.limit = this.limit;
+        copy.offset = this.offset;
+        copy.cacheTtl = this.cacheTtl;
+        return copy;
+    }
+
     public SelectWrapper fetch() {
+        this.query = null;
+        this.preparedSql = null;
+        this.tempTables = List.of();
+        this.shape = JdbcPlusTemplateFactory.isUseBindParameters() ? shape() : null;
+        if (this.shape != null) {
+            String sql = QueryShapeCache.get(this.shape);
+            if (sql != null) {
+                List<Object> values = values();
+                this.preparedSql = values.isEmpty() ? new PreparedSql(sql) : new PreparedSql(sql, values.toArray());
+                return this;
+            }
+        }
+
+        this.query = build();
+        return this;
+    }
+
+    /**
+     * 渲染查询（同一次 fetch 只渲染一次），并在当前事务中写入查询引用的 IN 列表临时表
+     */
+    public PreparedSql prepare(JdbcPlusTemplate jdbcPlusTemplate) {
+        if (this.preparedSql == null) {
+            this.preparedSql = jdbcPlusTemplate.prepare(getQuery());
+            if (this.shape != null && Arrays.equals(this.preparedSql.args(), values().toArray())) {
+                QueryShapeCache.put(this.shape, this.preparedSql.sql());
+            }
+        }
+        InListConditions.materialize(jdbcPlusTemplate.jdbcTemplate(), this.tempTables);
+        return this.preparedSql;
+    }
+
+    /**
+     * 渲染与当前查询条件一致的 COUNT(*) 查询，不含排序、键集条件与行数限制
+     */
+    public PreparedSql prepareCount(JdbcPlusTemplate jdbcPlusTemplate) {
+        List<InListConditions.TempTable> tempTables = new ArrayList<>();
+        PreparedSql count = jdbcPlusTemplate.prepare(buildCount(tempTables));
+        InListConditions.materialize(jdbcPlusTemplate.jdbcTemplate(), tempTables);
+        return count;
+    }
+
+    /**
+     * 列收敛为 COUNT(*)，条件使用的临时表加入 tempTables；未被条件或其他连接引用、且按被连接表主键连接（不会放大行数）的 LEFT JOIN 被省略
+     */
+    private SelectQuery buildCount(List<InListConditions.TempTable> tempTables) {
         DbSpec spec = new DbSpec();
         DbSchema schema = spec.addDefaultSchema();
         DbTable t1 = schema.addTable(from.getName());
-        query = new SelectQuery();
+        for (Column column : from.getColumns()) {
+            t1.addColumn(column.getName());
+        }
+        SelectQuery query = new SelectQuery().addCustomColumns(FunctionCall.countAll());
+        boolean joined = false;
+        for (Table join : joins) {
+            DbTable itemJoin = schema.addTable(join.getName());
+            if (join.getColumns().isEmpty()) {
+                continue;
+            }
+            Column foreignKey = null;
+            for (Column column : join.getColumns()) {
+                itemJoin.addColumn(column.getName());
+                if (column.getFunction() == null && column.getForeign_key() != null) {
+                    foreignKey = column;
+                }
+            }
+            if (foreignKey == null) {
+                throw new IllegalArgumentException("Join " + join.getName() + " has no foreign key");
+            }
+            if (droppable(join, foreignKey)) {
+                continue;
+            }
+            String[] ons = foreignKey.getForeign_key().condition().split("\\.");
+            DbTable onTable = schema.findTable(ons[0]);
+            DbJoin dbJoin = spec.addJoin(null, onTable.getName(), null, join.getName(),
+                    new String[]{ons[1]}, new String[]{foreignKey.getName()});
+            query.addJoins(join.getJoinType(), dbJoin);
+            joined = true;
+        }
+        if (!joined) {
+            query.addFromTable(t1);
+        }
+        tempTables.addAll(Wrapper.wrapperCondition(schema, query, conditions));
+        return query;
+    }
+
+    private boolean droppable(Table join, Column foreignKey) {
+        if (join.getJoinType() != SelectQuery.JoinType.LEFT_OUTER) {
+            return false;
+        }
+        Column primaryKey = join.getPrimaryKey();
+        if (primaryKey == null || !primaryKey.getName().equals(foreignKey.getName())) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (condition.getTable().equals(join.getName())) {
+                return false;
+            }
+        }
+        for (Table other : joins) {
+            for (Column column : other.getColumns()) {
+                if (column.getForeign_key() != null
+                        && column.getForeign_key().condition().startsWith(join.getName() + ".")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private SelectQuery build() {
+        DbSpec spec = new DbSpec();
+        DbSchema schema = spec.addDefaultSchema();
+        DbTable t1 = schema.addTable(from.getName());
+        SelectQuery query = new SelectQuery();
         for (Column column : from.getColumns()) {
             DbColumn dbColumn = t1.addColumn(column.getName());
             SqlFunction function = column.getFunction();
@@ -115,19 +343,179 @@ public class SelectWrapper {
                 query.addJoins(join.getJoinType(), dbJoin);
             }
         }
-        Wrapper.wrapperCondition(schema, query, conditions);
+        this.tempTables = Wrapper.wrapperCondition(schema, query, conditions);
+        List<DbColumn> orderColumns = new ArrayList<>();
         if (!this.orders.isEmpty()) {
             for (Order order : orders) {
                 DbTable orderTable = schema.findTable(order.table());
                 DbColumn orderColumn = orderTable.findColumn(order.column());
+                orderColumns.add(orderColumn);
                 query.addOrdering(orderColumn, order.asc() ? OrderObject.Dir.ASCENDING : OrderObject.Dir.DESCENDING);
             }
         }
+        if (this.seekValues != null) {
+            query.addCondition(seekCondition(orderColumns));
+        }
+        if (this.limit > 0) {
+            if (JdbcPlusTemplateFactory.getDialect() == Dialect.OTHER) {
+                throw new IllegalStateException("Limit requires a dialect, configure jdbc-plus.dialect");
+            }
+            JdbcPlusTemplateFactory.getDialect().limit(query, this.offset, this.limit);
+        }
 
-        return this;
+        return query;
+    }
+
+    private String shape() {
+        StringBuilder shape = new StringBuilder(128);
+        appendTableShape(shape, from);
+        for (Table join : joins) {
+            shape.append(join.getJoinType()).append(QueryShapeCache.SEPARATOR);
+            appendTableShape(shape, join);
+        }
+        shape.append('W');
+        for (Condition condition : conditions) {
+            shape.append(condition.getTable()).append(QueryShapeCache.SEPARATOR);
+            for (QueryCondition where : condition.getWheres()) {
+                shape.append(where.getColumn()).append(QueryShapeCache.SEPARATOR)
+                        .append(where.getOperator().name()).append(QueryShapeCache.SEPARATOR);
+                if (!QueryShapeCache.appendValueShape(shape, where.getValue())) {
+                    return null;
+                }
+            }
+        }
+        shape.append('O');
+        for (Order order : orders) {
+            shape.append(order.table()).append('.').append(order.column())
+                    .append(order.asc() ? '+' : '-').append(QueryShapeCache.SEPARATOR);
+        }
+        if (seekValues != null) {
+            shape.append(useRowValues() ? 'R' : 'S');
+            for (Object value : seekValues) {
+                if (!QueryShapeCache.appendValueShape(shape, value)) {
+                    return null;
+                }
+            }
+        }
+        if (limit > 0) {
+            // 绑定为参数的行数与偏移量不进入结构，只区分参数个数
+            List<Object> limitParameters = JdbcPlusTemplateFactory.getDialect().limitParameters(offset, limit);
+            shape.append('L').append(limitParameters == null ? limit : limitParameters.size());
+        }
+        return shape.toString();
+    }
+
+    private static void appendTableShape(StringBuilder shape, Table table) {
+        shape.append('T').append(table.getName()).append(QueryShapeCache.SEPARATOR);
+        for (Column column : table.getColumns()) {
+            shape.append(column.getName()).append(QueryShapeCache.SEPARATOR)
+                    .append(column.getAlias()).append(QueryShapeCache.SEPARATOR)
+                    .append(column.getFunction()).append(QueryShapeCache.SEPARATOR)
+                    .append(column.getForeign_key() != null ? column.getForeign_key().condition() : null)
+                    .append(QueryShapeCache.SEPARATOR);
+        }
+    }
+
+    private List<Object> values() {
+        List<Object> values = new ArrayList<>();
+        for (Condition condition : conditions) {
+            for (QueryCondition where : condition.getWheres()) {
+                QueryShapeCache.collectValues(values, where.getValue());
+            }
+        }
+        if (seekValues != null) {
+            for (Object value : seekParameters()) {
+                QueryShapeCache.collectValues(values, value);
+            }
+        }
+        if (limit > 0) {
+            List<Object> limitParameters = JdbcPlusTemplateFactory.getDialect().limitParameters(offset, limit);
+            if (limitParameters != null) {
+                values.addAll(limitParameters);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 升序列取 &gt;、降序列取 &lt;；方向一致且方言支持时渲染为 (c1, c2) &gt; (v1, v2)，
+     * 否则展开为 c1 &gt;= v1 AND (c1 &gt; v1 OR (c1 = v1 AND c2 &gt; v2) ...)，首列条件便于优化器选择范围扫描
+     */
+    private com.healthmarketscience.sqlbuilder.Condition seekCondition(List<DbColumn> columns) {
+        if (seekValues.length == 0 || seekValues.length != columns.size()) {
+            throw new IllegalArgumentException("Seek values must match the " + columns.size() + " order columns, given: " + seekValues.length);
+        }
+        for (Object value : seekValues) {
+            if (value == null) {
+                throw new IllegalArgumentException("Seek values must not be null");
+            }
+        }
+
+        if (useRowValues()) {
+            ComboExpression left = new ComboExpression(",");
+            ComboExpression right = new ComboExpression(",");
+            for (int i = 0; i < columns.size(); i++) {
+                left.addExpression(columns.get(i));
+                right.addExpression(Converter.toValueSqlObject(seekValues[i]));
+            }
+            return new BinaryCondition(seekOp(0, false), left, right);
+        }
+
+        ComboCondition or = ComboCondition.or();
+        for (int i = 0; i < columns.size(); i++) {
+            ComboCondition and = ComboCondition.and();
+            for (int j = 0; j < i; j++) {
+                and.addCondition(BinaryCondition.equalTo(columns.get(j), seekValues[j]));
+            }
+            and.addCondition(new BinaryCondition(seekOp(i, false), columns.get(i), seekValues[i]));
+            or.addCondition(and);
+        }
+        if (columns.size() == 1) {
+            return or;
+        }
+        return ComboCondition.and(new BinaryCondition(seekOp(0, true), columns.get(0), seekValues[0]), or);
+    }
+
+    /**
+     * 与 {@link #seekCondition} 渲染顺序一致的键集参数
+     */
+    private List<Object> seekParameters() {
+        if (useRowValues()) {
+            return Arrays.asList(seekValues);
+        }
+        List<Object> parameters = new ArrayList<>();
+        if (seekValues.length > 1) {
+            parameters.add(seekValues[0]);
+        }
+        for (int i = 0; i < seekValues.length; i++) {
+            parameters.addAll(Arrays.asList(seekValues).subList(0, i + 1));
+        }
+        return parameters;
+    }
+
+    private boolean useRowValues() {
+        if (seekValues.length < 2 || !JdbcPlusTemplateFactory.getDialect().isSupportsRowValues()) {
+            return false;
+        }
+        for (Order order : orders) {
+            if (order.asc() != orders.get(0).asc()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BinaryCondition.Op seekOp(int index, boolean inclusive) {
+        if (orders.get(index).asc()) {
+            return inclusive ? BinaryCondition.Op.GREATER_THAN_OR_EQUAL_TO : BinaryCondition.Op.GREATER_THAN;
+        }
+        return inclusive ? BinaryCondition.Op.LESS_THAN_OR_EQUAL_TO : BinaryCondition.Op.LESS_THAN;
     }
 
     public SelectQuery getQuery() {
+        if (query == null && preparedSql != null) {
+            query = build();
+        }
         return query;
     }
 }
@@ -5,37 +5,32 @@ import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbSchema;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbSpec;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
+import com.healthmarketscience.template.InListConditions;
 import com.healthmarketscience.template.JdbcPlusTemplate;
-import com.healthmarketscience.template.JdbcPlusTemplateFactory;
+import com.healthmarketscience.template.PreparedSql;
 
 import java.util.List;
 
 public class UpdateHandler implements UpdateWrapperHandler {
-    private UpdateQuery update;
-    private final JdbcPlusTemplate jdbcPlusTemplate;
-
-    public UpdateHandler() {
-        jdbcPlusTemplate = JdbcPlusTemplateFactory.getJdbcPlusTemplate();
-    }
-
     @Override
-    public int handle(Table table, List<Condition> conditions) {
+    public PreparedSql handle(JdbcPlusTemplate jdbcPlusTemplate, Table table, List<Condition> conditions) {
         DbSpec spec = new DbSpec();
         DbSchema schema = spec.addDefaultSchema();
         DbTable t1 = schema.addTable(table.getName());
-        update = new UpdateQuery(t1);
+        for (Column column : table.getColumns()) {
+            t1.addColumn(column.getName());
+        }
+        UpdateQuery update = new UpdateQuery(t1);
 
         for (Update item : table.getUpdates()) {
-            DbColumn dbColumn = t1.addColumn(item.column().getName());
+            DbColumn dbColumn = t1.findColumn(item.column().getName());
+            if (dbColumn == null) {
+                dbColumn = t1.addColumn(item.column().getName());
+            }
             update.addSetClause(dbColumn, item.value());
         }
-        Wrapper.wrapperCondition(schema, update, conditions);
-
-        return jdbcPlusTemplate.update(this);
-    }
-
-    @Override
-    public String builder() {
-        return update.validate().toString();
+        List<InListConditions.TempTable> tempTables = Wrapper.wrapperCondition(schema, update, conditions);
+        InListConditions.materialize(jdbcPlusTemplate.jdbcTemplate(), tempTables);
+        return jdbcPlusTemplate.prepare(update);
     }
 }
@@ -1,6 +1,11 @@
 package com.healthmarketscience.wrapper;
 
 import com.healthmarketscience.core.CollectionUtils;
+import com.healthmarketscience.template.JdbcPlusTemplate;
+import com.healthmarketscience.template.JdbcPlusTemplateFactory;
+import com.healthmarketscience.template.PreparedSql;
+import com.healthmarketscience.template.QueryResultCache;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +31,17 @@ public class UpdateWrapper {
     }
 
     public int execute() {
-        return UpdateWrapperFactory.create(updateEnums).handle(from, conditions);
+        UpdateWrapperHandler handler = UpdateWrapperFactory.create(updateEnums);
+        JdbcPlusTemplate jdbcPlusTemplate = JdbcPlusTemplateFactory.getJdbcPlusTemplate();
+        PreparedSql preparedSql = handler.handle(jdbcPlusTemplate, from, conditions);
+        int result;
+        if (handler.returnGeneratedKeys()) {
+            from.setKeyHolder(new GeneratedKeyHolder());
+            result = jdbcPlusTemplate.update(from.getKeyHolder(), preparedSql);
+        } else {
+            result = jdbcPlusTemplate.update(preparedSql);
+        }
+        QueryResultCache.invalidate(from.getName());
+        return result;
     }
 }
@@ -1,10 +1,18 @@
 package com.healthmarketscience.wrapper;
 
+import com.healthmarketscience.template.JdbcPlusTemplate;
+import com.healthmarketscience.template.PreparedSql;
+
 import java.util.List;
 
+/**
+ * 写操作处理器，无状态，每次调用生成独立的 PreparedSql，可被多线程共享
+ */
 public interface UpdateWrapperHandler {
 
-    int handle(Table table, List<Condition> conditions);
+    PreparedSql handle(JdbcPlusTemplate jdbcPlusTemplate, Table table, List<Condition> conditions);
 
-    String builder();
+    default boolean returnGeneratedKeys() {
+        return false;
+    }
 }
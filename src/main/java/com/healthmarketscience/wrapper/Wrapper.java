@@ -4,11 +4,17 @@ import com.healthmarketscience.sqlbuilder.*;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbSchema;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
+import com.healthmarketscience.template.InListConditions;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class Wrapper {
-    public static void wrapperCondition(DbSchema schema, Query<?> query, List<Condition> conditions) {
+    /**
+     * @return 本次构建的条件使用的 IN 列表临时表，需在执行语句前写入
+     */
+    public static List<InListConditions.TempTable> wrapperCondition(DbSchema schema, Query<?> query, List<Condition> conditions) {
+        List<InListConditions.TempTable> tempTables = null;
         if (!conditions.isEmpty()) {
             for (Condition condition : conditions) {
                 String item = condition.getTable();
@@ -23,10 +29,20 @@ public class Wrapper {
                         throw new IllegalArgumentException("Condition " + item + " has no column");
                     }
                     if (query instanceof Where) {
-                        ((Where) query).addCondition(where.wrapper(itemColumn));
+                        InListConditions.TempTable tempTable = where.tempTable();
+                        if (tempTable == null) {
+                            ((Where) query).addCondition(where.wrapper(itemColumn));
+                            continue;
+                        }
+                        if (tempTables == null) {
+                            tempTables = new ArrayList<>();
+                        }
+                        tempTables.add(tempTable);
+                        ((Where) query).addCondition(tempTable.condition(itemColumn));
                     }
                 }
             }
         }
+        return tempTables == null ? List.of() : tempTables;
     }
 }